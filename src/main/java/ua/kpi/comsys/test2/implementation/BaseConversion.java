@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Переведення цифр між системами числення за схемою "розділяй і владарюй".<p>
+ *
+ * Уся арифметика виконується у лімбах цільової системи, тому ділення не
+ * потрібне: цифри джерела ділляться навпіл (молодша половина має довжину
+ * LEAF_DIGITS * 2^i), кожна половина переводиться рекурсивно, а результат
+ * збирається як старша * from^(довжина молодшої) + молодша. Степені основи
+ * джерела обчислюються послідовним піднесенням до квадрату. Завдяки множенню
+ * Карацуби / Тоом-Кука загальна складність - O(M(n) log n) замість
+ * квадратичної.<p>
+ *
+ * Степені спільні для всього процесу: для кожної пари систем є таблиця
+ * {@link Powers}, яка лише зростає і читається без блокувань. Загальний
+ * розмір таблиць обмежений (властивість
+ * <tt>ua.kpi.comsys.test2.powerCacheLimit</tt>, у лімбах); при переповненні
+ * першими витісняються найбільші степені. Те, що не вмістилось у кеш,
+ * зберігається лише до кінця поточного переведення.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+final class BaseConversion {
+
+    // Довжина (у цифрах джерела) шматка, що переводиться напряму
+    static final int LEAF_DIGITS = 256;
+
+    // Межа сумарного розміру кешу степенів у лімбах (за замовчуванням 64 МБ)
+    private static volatile long cacheLimit =
+            Long.getLong("ua.kpi.comsys.test2.powerCacheLimit", 1L << 24);
+    // Таблиці степенів для пар (from, to); ключ - from * 256 + to
+    private static final ConcurrentHashMap<Integer, Powers> TABLES = new ConcurrentHashMap<>();
+    // Поточний розмір усіх таблиць у лімбах; змінюється лише під CACHE_LOCK
+    private static long cached;
+    private static final Object CACHE_LOCK = new Object();
+
+    private final int from;
+    private final DigitArithmetic to;
+    private final Powers shared;
+    // Цифр джерела в одному "кроці" прямого переведення і from^chunk (не більше
+    // 2^30, щоб проміжні добутки лишались меншими за 2^61, див. DigitArithmetic.quot)
+    private final int chunk;
+    private final int chunkPow;
+    // powers[i] = from^(LEAF_DIGITS * 2^i) у лімбах цільової системи; спершу
+    // знімок спільної таблиці, далі доповнюється локально
+    private int[][] powers;
+
+    private BaseConversion(Powers shared) {
+        this.from = shared.from;
+        this.to = shared.to;
+        this.shared = shared;
+        this.powers = shared.levels;
+        int c = 0;
+        long p = 1;
+        while (p * from <= (1 << 30)) {
+            p *= from;
+            c++;
+        }
+        this.chunk = c;
+        this.chunkPow = (int) p;
+    }
+
+    /**
+     * Спільна таблиця степенів для однієї пари систем. Масив levels
+     * незмінний: зростання і витіснення замінюють його новим.
+     */
+    private static final class Powers {
+        final int from;
+        final DigitArithmetic to;
+        volatile int[][] levels = new int[0][];
+
+        Powers(int from, int to) {
+            this.from = from;
+            this.to = new DigitArithmetic(to);
+        }
+    }
+
+    /**
+     * Переводить цифри (старші першими) з системи from у систему to.
+     * Результат не містить ведучих нулів.
+     */
+    static byte[] convert(byte[] digits, int from, int to) {
+        if (from == to) {
+            int k = 0;
+            while (k < digits.length && digits[k] == 0) k++;
+            return Arrays.copyOfRange(digits, k, digits.length);
+        }
+        BaseConversion c = of(from, to);
+        return c.to.toDigits(c.toLimbs(digits, 0, digits.length));
+    }
+
+    /**
+     * Переводить цифри (старші першими) з системи from у лімби системи to
+     * (молодші першими, можливо зі старшими нульовими лімбами).
+     */
+    static int[] convertToLimbs(byte[] digits, int from, int to) {
+        if (from == to) return new DigitArithmetic(to).toLimbs(digits);
+        return of(from, to).toLimbs(digits, 0, digits.length);
+    }
+
+    private static BaseConversion of(int from, int to) {
+        return new BaseConversion(TABLES.computeIfAbsent(from * 256 + to, k -> new Powers(from, to)));
+    }
+
+    /**
+     * Потокове переведення: цифри джерела надходять порціями, від старших
+     * до молодших, і весь запис у системі from ніколи не зберігається.
+     * Кожні LEAF_DIGITS цифр переводяться одразу, а готові шматки зливаються
+     * як розряди двійкового лічильника: два сусідні шматки однакової довжини
+     * L стають одним, старший * from^L + молодший. Тому в стеку лише
+     * O(log n) шматків спадної довжини, а загальна робота та сама, що й у
+     * convert().
+     */
+    static final class Accumulator {
+        private final BaseConversion conv;
+        private final byte[] leaf = new byte[LEAF_DIGITS];
+        private int leafLen = 0;
+        // values[k] має довжину LEAF_DIGITS * 2^levels[k] цифр джерела
+        private int[][] values = new int[8][];
+        private int[] levels = new int[8];
+        private int depth = 0;
+
+        Accumulator(int from, int to) {
+            this.conv = of(from, to);
+        }
+
+        /**
+         * Арифметика цільової системи, у лімбах якої повертає результат finish()
+         */
+        DigitArithmetic target() {
+            return conv.to;
+        }
+
+        /**
+         * Додає digits[off..off+len) як наступні (молодші) цифри числа
+         */
+        void append(byte[] digits, int off, int len) {
+            while (len > 0) {
+                int k = Math.min(LEAF_DIGITS - leafLen, len);
+                System.arraycopy(digits, off, leaf, leafLen, k);
+                leafLen += k;
+                off += k;
+                len -= k;
+                if (leafLen == LEAF_DIGITS) {
+                    push(conv.convertLeaf(leaf, 0, LEAF_DIGITS));
+                    leafLen = 0;
+                }
+            }
+        }
+
+        private void push(int[] value) {
+            int level = 0;
+            while (depth > 0 && levels[depth - 1] == level) {
+                depth--;
+                value = conv.to.add(conv.to.multiply(values[depth], conv.power(level)), value);
+                values[depth] = null;
+                level++;
+            }
+            if (depth == values.length) {
+                values = Arrays.copyOf(values, depth * 2);
+                levels = Arrays.copyOf(levels, depth * 2);
+            }
+            values[depth] = value;
+            levels[depth++] = level;
+        }
+
+        /**
+         * Завершує переведення і повертає значення у лімбах цільової системи
+         * (можливо, зі старшими нульовими лімбами).
+         */
+        int[] finish() {
+            // від молодших (коротших) шматків до старших: acc - уже зібрана
+            // молодша частина, pw - from^(її довжина); множення лишаються
+            // збалансованими, бо кожен шматок довший за всі молодші разом
+            int[] acc;
+            int[] pw;
+            if (leafLen > 0) {
+                // from^leafLen - одиниця з leafLen нулями
+                byte[] one = new byte[leafLen + 1];
+                one[0] = 1;
+                acc = conv.convertLeaf(leaf, 0, leafLen);
+                pw = conv.convertLeaf(one, 0, one.length);
+            } else if (depth > 0) {
+                acc = values[--depth];
+                pw = conv.power(levels[depth]);
+            } else {
+                return new int[0];
+            }
+            while (depth > 0) {
+                depth--;
+                acc = conv.to.add(conv.to.multiply(values[depth], pw), acc);
+                if (depth > 0) pw = conv.to.multiply(pw, conv.power(levels[depth]));
+                values[depth] = null;
+            }
+            leafLen = 0;
+            return acc;
+        }
+    }
+
+    /**
+     * Значення digits[lo..hi) у лімбах цільової системи
+     */
+    private int[] toLimbs(byte[] digits, int lo, int hi) {
+        int n = hi - lo;
+        if (n <= LEAF_DIGITS) return convertLeaf(digits, lo, hi);
+        int i = 0;
+        while ((long) LEAF_DIGITS << (i + 1) < n) i++;
+        int lowLen = LEAF_DIGITS << i;
+        int[] high = toLimbs(digits, lo, hi - lowLen);
+        int[] low = toLimbs(digits, hi - lowLen, hi);
+        return to.add(to.multiply(high, power(i)), low);
+    }
+
+    /**
+     * Пряме переведення короткого шматка: value = value * from^chunk + наступні chunk цифр
+     */
+    private int[] convertLeaf(byte[] digits, int lo, int hi) {
+        int[] res = new int[(int) ((hi - lo) * Math.log(from) / Math.log(to.limbBase)) + 2];
+        int len = 0;
+        int pos = lo;
+        while (pos < hi) {
+            int take = Math.min(chunk, hi - pos);
+            long mul = (take == chunk) ? chunkPow : pow(from, take);
+            long carry = 0;
+            for (int j = pos; j < pos + take; j++) {
+                carry = carry * from + digits[j];
+            }
+            pos += take;
+            for (int k = 0; k < len; k++) {
+                long t = res[k] * mul + carry;
+                carry = to.quot(t);
+                res[k] = (int) (t - carry * to.limbBase);
+            }
+            while (carry != 0) {
+                res[len++] = (int) (carry % to.limbBase);
+                carry /= to.limbBase;
+            }
+        }
+        return res;
+    }
+
+    private int[] power(int i) {
+        if (i >= powers.length) {
+            // Можливо, інший потік уже обчислив потрібні степені
+            int[][] latest = shared.levels;
+            if (latest.length > powers.length) powers = latest;
+        }
+        if (i >= powers.length) {
+            int[][] grown = Arrays.copyOf(powers, i + 1);
+            for (int k = powers.length; k <= i; k++) {
+                if (k == 0) {
+                    // from^LEAF_DIGITS - це одиниця з LEAF_DIGITS нулями
+                    byte[] one = new byte[LEAF_DIGITS + 1];
+                    one[0] = 1;
+                    grown[0] = convertLeaf(one, 0, one.length);
+                } else {
+                    grown[k] = to.multiply(grown[k - 1], grown[k - 1]);
+                }
+                offer(shared, k, grown[k]);
+            }
+            powers = grown;
+        }
+        return powers[i];
+    }
+
+    /**
+     * Додає степінь рівня level до спільної таблиці, якщо вона саме такої
+     * довжини і є місце (з витісненням найбільших степенів інших таблиць).
+     */
+    private static void offer(Powers table, int level, int[] power) {
+        synchronized (CACHE_LOCK) {
+            int[][] levels = table.levels;
+            if (levels.length != level) return;
+            long limit = cacheLimit;
+            if (power.length > limit) return;
+            while (cached + power.length > limit) {
+                // Витісняємо лише степені, більші за той, що додається
+                Powers victim = evictLargest(power.length);
+                if (victim == null || victim == table) return;
+            }
+            int[][] grown = Arrays.copyOf(levels, level + 1);
+            grown[level] = power;
+            table.levels = grown;
+            cached += power.length;
+        }
+    }
+
+    /**
+     * Встановлює межу розміру кешу степенів (у лімбах) і витісняє зайве.
+     */
+    static void setCacheLimit(long limbs) {
+        if (limbs < 0) throw new IllegalArgumentException("Negative cache limit: " + limbs);
+        synchronized (CACHE_LOCK) {
+            cacheLimit = limbs;
+            while (cached > limbs) {
+                evictLargest(0);
+            }
+        }
+    }
+
+    /**
+     * Видаляє найбільший закешований степінь (верхній рівень однієї з
+     * таблиць), якщо він довший за minLength лімбів. Викликається під CACHE_LOCK.
+     *
+     * @return таблиця, з якої видалено степінь, або null.
+     */
+    private static Powers evictLargest(int minLength) {
+        Powers victim = null;
+        int victimLen = minLength;
+        for (Powers p : TABLES.values()) {
+            int[][] l = p.levels;
+            if (l.length > 0 && l[l.length - 1].length > victimLen) {
+                victim = p;
+                victimLen = l[l.length - 1].length;
+            }
+        }
+        if (victim != null) {
+            int[][] l = victim.levels;
+            victim.levels = Arrays.copyOf(l, l.length - 1);
+            cached -= victimLen;
+        }
+        return victim;
+    }
+
+    /**
+     * Поточний розмір кешу степенів у лімбах.
+     */
+    static long cachedLimbs() {
+        synchronized (CACHE_LOCK) {
+            return cached;
+        }
+    }
+
+    private static long pow(int b, int e) {
+        long r = 1;
+        for (int i = 0; i < e; i++) r *= b;
+        return r;
+    }
+}
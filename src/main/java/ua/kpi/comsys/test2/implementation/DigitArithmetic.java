@@ -0,0 +1,540 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Поцифрова арифметика над модулями чисел у заданій системі числення.<p>
+ *
+ * Цифри списку групуються у "лімби" - по limbDigits цифр в одному
+ * <tt>int</tt>, тобто числа в системі з основою limbBase = base^limbDigits
+ * (не більше 2^30, щоб добуток двох лімбів з переносом вміщався у <tt>long</tt>).
+ * Масиви лімбів зберігаються від молодшого до старшого; старші нулі допускаються.
+ * Для основної системи числення варіанту є готовий екземпляр PRIMARY.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+final class DigitArithmetic {
+
+
+    // Пороги множення (у лімбах меншого множника): нижче KARATSUBA_THRESHOLD -
+    // у стовпчик, нижче TOOM3_THRESHOLD - Карацуба, вище - Тоом-Кук-3.
+    // Підібрані заміром (MultiplyBenchmark у тестах, make bench): обидва
+    // лежать на пологому мінімумі часу, 24-64 і 64-128 лімбів відповідно.
+    static final int KARATSUBA_THRESHOLD = 32;
+    static final int TOOM3_THRESHOLD = 96;
+
+    static final DigitArithmetic PRIMARY = new DigitArithmetic(NumberListImpl.PRIMARY_BASE);
+    static final DigitArithmetic DECIMAL = new DigitArithmetic(10);
+
+    final int base;
+    final int limbDigits;
+    final int limbBase;
+    // Бітів на цифру, якщо основа - степінь двійки (інакше 0), і скільки
+    // таких цифр вміщається в один long для порозрядних операцій
+    final int digitBits;
+    final int digitsPerWord;
+    // Ділення на limbBase множенням на обернене (Гранлунд - Монтгомері):
+    // основа - поле, а не константа, тож JIT сам ділення не замінить
+    private final long limbMagic;
+    private final int limbShift;
+
+    DigitArithmetic(int base) {
+        if (base < 2 || base > 16) throw new IllegalArgumentException("Unsupported base: " + base);
+        this.base = base;
+        int k = 0;
+        long p = 1;
+        while (p * base <= (1 << 30)) {
+            p *= base;
+            k++;
+        }
+        this.limbDigits = k;
+        this.limbBase = (int) p;
+        // magic = ceil(2^(61+l) / limbBase), де 2^l >= limbBase; тоді для
+        // 0 <= t < 2^61 частка t / limbBase = (t * magic) >> (61 + l)
+        int l = 64 - Long.numberOfLeadingZeros(p - 1);
+        this.limbMagic = BigInteger.ONE.shiftLeft(61 + l).add(BigInteger.valueOf(p - 1))
+                .divide(BigInteger.valueOf(p)).longValueExact();
+        this.limbShift = l - 3;
+        this.digitBits = (base & (base - 1)) == 0 ? Integer.numberOfTrailingZeros(base) : 0;
+        this.digitsPerWord = digitBits == 0 ? 0 : Long.SIZE / digitBits;
+    }
+
+    /**
+     * Частка від ділення на limbBase для 0 <= t < 2^61
+     */
+    long quot(long t) {
+        return Math.multiplyHigh(t, limbMagic) >>> limbShift;
+    }
+
+    /**
+     * Групує цифри (старші першими) у лімби (молодші першими)
+     */
+    int[] toLimbs(byte[] digits) {
+        int n = (digits.length + limbDigits - 1) / limbDigits;
+        int[] res = new int[n];
+        int pos = digits.length;
+        for (int i = 0; i < n; i++) {
+            int from = Math.max(0, pos - limbDigits);
+            int v = 0;
+            for (int j = from; j < pos; j++) {
+                v = v * base + digits[j];
+            }
+            res[i] = v;
+            pos = from;
+        }
+        return res;
+    }
+
+    /**
+     * Розгортає лімби назад у цифри (старші першими) без ведучих нулів
+     */
+    byte[] toDigits(int[] limbs) {
+        int n = length(limbs);
+        if (n == 0) return new byte[0];
+        byte[] buf = new byte[n * limbDigits];
+        int pos = buf.length;
+        for (int i = 0; i < n; i++) {
+            int v = limbs[i];
+            for (int j = 0; j < limbDigits; j++) {
+                buf[--pos] = (byte) (v % base);
+                v /= base;
+            }
+        }
+        int k = 0;
+        while (buf[k] == 0) k++;
+        byte[] res = new byte[buf.length - k];
+        System.arraycopy(buf, k, res, 0, res.length);
+        return res;
+    }
+
+    /**
+     * Кількість лімбів без старших нулів
+     */
+    int length(int[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0) n--;
+        return n;
+    }
+
+    /**
+     * Добуток модулів з порогами за замовчуванням
+     */
+    int[] multiply(int[] a, int[] b) {
+        return multiply(a, b, KARATSUBA_THRESHOLD, TOOM3_THRESHOLD);
+    }
+
+    /**
+     * Добуток модулів з заданими порогами перемикання алгоритмів
+     * (для замірів і перевірки; пороги не менші за 2 і 3 лімби відповідно)
+     */
+    int[] multiply(int[] a, int[] b, int karatsubaThreshold, int toom3Threshold) {
+        if (karatsubaThreshold < 2 || toom3Threshold < 3) {
+            throw new IllegalArgumentException("Thresholds too small: " + karatsubaThreshold + ", " + toom3Threshold);
+        }
+        int na = length(a);
+        int nb = length(b);
+        if (na < nb) {
+            int[] t = a; a = b; b = t;
+            int tn = na; na = nb; nb = tn;
+        }
+        if (nb == 0) return new int[0];
+        if (nb < karatsubaThreshold) return schoolbook(a, na, b, nb);
+
+        if (2 * nb <= na) {
+            // несиметричні множники: a ріжемо на шматки довжиною b
+            int[] res = new int[na + nb];
+            for (int off = 0; off < na; off += nb) {
+                int[] piece = slice(a, off, Math.min(off + nb, na));
+                addInto(res, multiply(piece, b, karatsubaThreshold, toom3Threshold), off);
+            }
+            return res;
+        }
+        return (nb < toom3Threshold)
+                ? karatsuba(a, na, b, nb, karatsubaThreshold, toom3Threshold)
+                : toom3(a, na, b, nb, karatsubaThreshold, toom3Threshold);
+    }
+
+    /**
+     * Карацуба: a1*b1*x^2 + ((a0+a1)(b0+b1) - a0*b0 - a1*b1)*x + a0*b0, x = limbBase^m
+     */
+    private int[] karatsuba(int[] a, int na, int[] b, int nb, int kt, int tt) {
+        int m = (na + 1) / 2;
+        int[] a0 = slice(a, 0, m);
+        int[] a1 = slice(a, m, na);
+        int[] b0 = slice(b, 0, Math.min(m, nb));
+        int[] b1 = slice(b, Math.min(m, nb), nb);
+
+        int[] z0 = multiply(a0, b0, kt, tt);
+        int[] z2 = multiply(a1, b1, kt, tt);
+        int[] z1 = multiply(add(a0, a1), add(b0, b1), kt, tt);
+        z1 = subtract(subtract(z1, z0), z2);
+
+        int[] res = new int[na + nb];
+        addInto(res, z0, 0);
+        addInto(res, z1, m);
+        addInto(res, z2, 2 * m);
+        return res;
+    }
+
+    /**
+     * Тоом-Кук-3: значення у точках 0, 1, -1, -2, нескінченність та
+     * інтерполяція за послідовністю Бодрато (усі ділення точні)
+     */
+    private int[] toom3(int[] a, int na, int[] b, int nb, int kt, int tt) {
+        int k = (na + 2) / 3;
+        int[] a0 = slice(a, 0, Math.min(k, na));
+        int[] a1 = slice(a, Math.min(k, na), Math.min(2 * k, na));
+        int[] a2 = slice(a, Math.min(2 * k, na), na);
+        int[] b0 = slice(b, 0, Math.min(k, nb));
+        int[] b1 = slice(b, Math.min(k, nb), Math.min(2 * k, nb));
+        int[] b2 = slice(b, Math.min(2 * k, nb), nb);
+
+        // a(1) = a0 + a1 + a2, a(-1) = a0 - a1 + a2, a(-2) = 2(a(-1) + a2) - a0
+        int[] pa = add(a0, a2);
+        int[] pb = add(b0, b2);
+        Signed am1 = signed(pa).minus(signed(a1));
+        Signed bm1 = signed(pb).minus(signed(b1));
+        Signed am2 = am1.plus(signed(a2)).times(2).minus(signed(a0));
+        Signed bm2 = bm1.plus(signed(b2)).times(2).minus(signed(b0));
+
+        Signed r0 = signed(multiply(a0, b0, kt, tt));
+        Signed r1 = signed(multiply(add(pa, a1), add(pb, b1), kt, tt));
+        Signed rm1 = am1.times(bm1, kt, tt);
+        Signed rm2 = am2.times(bm2, kt, tt);
+        Signed rInf = signed(multiply(a2, b2, kt, tt));
+
+        Signed r3 = rm2.minus(r1).divide(3);
+        r1 = r1.minus(rm1).divide(2);
+        Signed r2 = rm1.minus(r0);
+        r3 = r2.minus(r3).divide(2).plus(rInf.times(2));
+        r2 = r2.plus(r1).minus(rInf);
+        r1 = r1.minus(r3);
+
+        // коефіцієнти добутку невід'ємні
+        int[] res = new int[na + nb];
+        addInto(res, r0.mag, 0);
+        addInto(res, r1.mag, k);
+        addInto(res, r2.mag, 2 * k);
+        addInto(res, r3.mag, 3 * k);
+        addInto(res, rInf.mag, 4 * k);
+        return res;
+    }
+
+    /**
+     * Множення у стовпчик
+     */
+    private int[] schoolbook(int[] a, int na, int[] b, int nb) {
+        int[] res = new int[na + nb];
+        for (int i = 0; i < na; i++) {
+            long ai = a[i];
+            if (ai == 0) continue;
+            long carry = 0;
+            for (int j = 0; j < nb; j++) {
+                long t = res[i + j] + ai * b[j] + carry;
+                carry = quot(t);
+                res[i + j] = (int) (t - carry * limbBase);
+            }
+            res[i + nb] = (int) carry;
+        }
+        return res;
+    }
+
+    /**
+     * Частка і остача від ділення модулів; повертає {частка, остача}.
+     * Ділення на один лімб - коротке, інакше - алгоритм D Кнута.
+     */
+    int[][] divideAndRemainder(int[] a, int[] b) {
+        int na = length(a);
+        int nb = length(b);
+        if (nb == 0) throw new ArithmeticException("Division by zero");
+        if (na < nb) {
+            return new int[][] {new int[0], a.clone()};
+        }
+        if (nb == 1) {
+            int[] q = new int[na];
+            long d = b[0];
+            long rem = 0;
+            for (int i = na - 1; i >= 0; i--) {
+                long cur = rem * limbBase + a[i];
+                q[i] = (int) (cur / d);
+                rem = cur - q[i] * d;
+            }
+            return new int[][] {q, new int[] {(int) rem}};
+        }
+
+        // нормалізація: старший лімб дільника не менший за limbBase / 2
+        int norm = limbBase / (b[nb - 1] + 1);
+        int[] u = multiplySmall(a, na, norm, na + 1);
+        int[] v = multiplySmall(b, nb, norm, nb);
+        long vTop = v[nb - 1];
+        long vNext = v[nb - 2];
+        int[] q = new int[na - nb + 1];
+
+        for (int j = na - nb; j >= 0; j--) {
+            long num = (long) u[j + nb] * limbBase + u[j + nb - 1];
+            long qhat = num / vTop;
+            long rhat = num - qhat * vTop;
+            while (qhat >= limbBase || qhat * vNext > rhat * limbBase + u[j + nb - 2]) {
+                qhat--;
+                rhat += vTop;
+                if (rhat >= limbBase) break;
+            }
+            // u[j..j+nb] -= qhat * v
+            long carry = 0;
+            long borrow = 0;
+            for (int i = 0; i < nb; i++) {
+                long p = qhat * v[i] + carry;
+                carry = quot(p);
+                long t = u[i + j] - (p - carry * limbBase) - borrow;
+                borrow = t < 0 ? 1 : 0;
+                u[i + j] = (int) (t + borrow * limbBase);
+            }
+            long t = u[j + nb] - carry - borrow;
+            if (t < 0) {
+                // qhat виявилось на одиницю більшим - додаємо дільник назад
+                u[j + nb] = (int) (t + limbBase);
+                qhat--;
+                long c = 0;
+                for (int i = 0; i < nb; i++) {
+                    long s = (long) u[i + j] + v[i] + c;
+                    c = s >= limbBase ? 1 : 0;
+                    u[i + j] = (int) (s - c * limbBase);
+                }
+                u[j + nb] = (int) ((u[j + nb] + c) % limbBase);
+            } else {
+                u[j + nb] = (int) t;
+            }
+            q[j] = (int) qhat;
+        }
+
+        // остача - це u[0..nb), поділена на коефіцієнт нормалізації
+        int[] r = new int[nb];
+        long rem = 0;
+        for (int i = nb - 1; i >= 0; i--) {
+            long cur = rem * limbBase + u[i];
+            r[i] = (int) (cur / norm);
+            rem = cur - r[i] * (long) norm;
+        }
+        return new int[][] {q, r};
+    }
+
+    /**
+     * Пакує цифри (старші першими) у слова long, вирівнюючи від молодшого
+     * розряду: слово 0 містить останні digitsPerWord цифр. Лише для основ,
+     * що є степенями двійки.
+     */
+    long[] packBits(byte[] digits) {
+        if (digitBits == 0) throw new UnsupportedOperationException("Base is not a power of two: " + base);
+        int n = (digits.length + digitsPerWord - 1) / digitsPerWord;
+        long[] words = new long[n];
+        int pos = digits.length;
+        for (int w = 0; w < n; w++) {
+            int from = Math.max(0, pos - digitsPerWord);
+            long v = 0;
+            for (int j = from; j < pos; j++) {
+                v = (v << digitBits) | digits[j];
+            }
+            words[w] = v;
+            pos = from;
+        }
+        return words;
+    }
+
+    /**
+     * Розпаковує count молодших цифр зі слів (старші першими)
+     */
+    byte[] unpackBits(long[] words, int count) {
+        byte[] digits = new byte[count];
+        long mask = (1L << digitBits) - 1;
+        int pos = count;
+        for (int w = 0; pos > 0; w++) {
+            long v = words[w];
+            int to = Math.max(0, pos - digitsPerWord);
+            for (int j = pos - 1; j >= to; j--) {
+                digits[j] = (byte) (v & mask);
+                v >>>= digitBits;
+            }
+            pos = to;
+        }
+        return digits;
+    }
+
+    /**
+     * Пословне AND; довжина - за коротшим операндом
+     */
+    long[] and(long[] a, long[] b) {
+        int n = Math.min(a.length, b.length);
+        long[] res = new long[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = a[i] & b[i];
+        }
+        return res;
+    }
+
+    /**
+     * Пословне OR; довжина - за довшим операндом
+     */
+    long[] or(long[] a, long[] b) {
+        if (a.length < b.length) {
+            long[] t = a; a = b; b = t;
+        }
+        long[] res = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            res[i] |= b[i];
+        }
+        return res;
+    }
+
+    /**
+     * Сума модулів
+     */
+    int[] add(int[] a, int[] b) {
+        int na = length(a);
+        int nb = length(b);
+        if (na < nb) {
+            int[] t = a; a = b; b = t;
+            int tn = na; na = nb; nb = tn;
+        }
+        int[] res = new int[na + 1];
+        int carry = 0;
+        for (int i = 0; i < na; i++) {
+            int s = a[i] + (i < nb ? b[i] : 0) + carry;
+            carry = s >= limbBase ? 1 : 0;
+            res[i] = s - carry * limbBase;
+        }
+        res[na] = carry;
+        return res;
+    }
+
+    /**
+     * Різниця модулів, a >= b
+     */
+    int[] subtract(int[] a, int[] b) {
+        int na = length(a);
+        int nb = length(b);
+        int[] res = new int[na];
+        int borrow = 0;
+        for (int i = 0; i < na; i++) {
+            int s = a[i] - (i < nb ? b[i] : 0) - borrow;
+            borrow = s < 0 ? 1 : 0;
+            res[i] = s + borrow * limbBase;
+        }
+        return res;
+    }
+
+    /**
+     * Порівняння модулів
+     */
+    int compare(int[] a, int[] b) {
+        int na = length(a);
+        int nb = length(b);
+        if (na != nb) return na < nb ? -1 : 1;
+        for (int i = na - 1; i >= 0; i--) {
+            if (a[i] != b[i]) return a[i] < b[i] ? -1 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * res += x * limbBase^off; сума має вміщатися у res
+     */
+    private void addInto(int[] res, int[] x, int off) {
+        int nx = length(x);
+        int carry = 0;
+        int i = 0;
+        for (; i < nx; i++) {
+            int s = res[off + i] + x[i] + carry;
+            carry = s >= limbBase ? 1 : 0;
+            res[off + i] = s - carry * limbBase;
+        }
+        for (int p = off + i; carry != 0; p++) {
+            int s = res[p] + carry;
+            carry = s >= limbBase ? 1 : 0;
+            res[p] = s - carry * limbBase;
+        }
+    }
+
+    private int[] slice(int[] a, int from, int to) {
+        return Arrays.copyOfRange(a, from, Math.max(from, to));
+    }
+
+    private Signed signed(int[] mag) {
+        return new Signed(1, mag);
+    }
+
+    /**
+     * Число зі знаком для проміжних значень Тоом-Кука
+     */
+    private final class Signed {
+        final int sign; // -1, 0, 1
+        final int[] mag;
+
+        private Signed(int sign, int[] mag) {
+            this.sign = length(mag) == 0 ? 0 : sign;
+            this.mag = mag;
+        }
+
+        Signed negate() {
+            return new Signed(-sign, mag);
+        }
+
+        Signed plus(Signed o) {
+            if (o.sign == 0) return this;
+            if (sign == 0) return o;
+            if (sign == o.sign) return new Signed(sign, add(mag, o.mag));
+            int c = compare(mag, o.mag);
+            if (c == 0) return new Signed(0, new int[0]);
+            return c > 0 ? new Signed(sign, subtract(mag, o.mag)) : new Signed(o.sign, subtract(o.mag, mag));
+        }
+
+        Signed minus(Signed o) {
+            return plus(o.negate());
+        }
+
+        Signed times(int m) {
+            return new Signed(sign, multiplySmall(mag, length(mag), m, length(mag) + 1));
+        }
+
+        Signed times(Signed o, int kt, int tt) {
+            return new Signed(sign * o.sign, multiply(mag, o.mag, kt, tt));
+        }
+
+        /**
+         * Точне ділення на мале число
+         */
+        Signed divide(int d) {
+            int n = length(mag);
+            int[] q = new int[n];
+            long rem = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                long cur = rem * limbBase + mag[i];
+                q[i] = (int) (cur / d);
+                rem = cur - q[i] * (long) d;
+            }
+            return new Signed(sign, q);
+        }
+    }
+
+    /**
+     * a * m для невеликого m, результат довжиною len лімбів
+     */
+    private int[] multiplySmall(int[] a, int na, int m, int len) {
+        int[] res = new int[len];
+        long carry = 0;
+        for (int i = 0; i < na; i++) {
+            long t = (long) a[i] * m + carry;
+            carry = quot(t);
+            res[i] = (int) (t - carry * limbBase);
+        }
+        if (na < len) res[na] = (int) carry;
+        return res;
+    }
+}
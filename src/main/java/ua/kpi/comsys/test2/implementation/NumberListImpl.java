@@ -8,17 +8,48 @@
 package ua.kpi.comsys.test2.implementation;
 
 import java.io.File;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 import java.math.BigInteger;
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import ua.kpi.comsys.test2.NumberList;
 
@@ -35,7 +66,7 @@ import ua.kpi.comsys.test2.NumberList;
  *  (C5+1) mod 5 = 1   -> додаткова система: трійкова
  *  C7 = 3620 % 7 = 1  -> операція: віднімання двох чисел
  */
-public class NumberListImpl implements NumberList {
+public class NumberListImpl implements PrimitiveNumberList {
 
     // Варіант
     private static final int GRADEBOOK = 3620;
@@ -45,30 +76,90 @@ public class NumberListImpl implements NumberList {
 
     // Системи числення
     private static final int[] BASES = {2, 3, 8, 10, 16};
-    private static final int PRIMARY_BASE = BASES[C5]; // основна система
-    private static final int SECONDARY_BASE = BASES[(C5 + 1) % 5]; // додаткова система
+    private static final int MAX_BASE = 16; // найбільша основа з BASES
+    static final int PRIMARY_BASE = BASES[C5]; // основна система
+    static final int SECONDARY_BASE = BASES[(C5 + 1) % 5]; // додаткова система
 
     private static final int LIST_TYPE = C3;
-    private static final int OPERATION_TYPE = C7;
-
-    // Поля для реалізації кільцевого двонаправленого списку:
+    static final int OPERATION_TYPE = C7;
+
+    // Кількість цифр в одному вузлі
+    private static final int BLOCK_SIZE = 64;
+    // Відстань (у цифрах), починаючи з якої пошук іде через індекс блоків
+    private static final int SKIP_INDEX_DISTANCE = 8 * BLOCK_SIZE;
+    // Розмір шматка (у символах) при потоковому читанні числа
+    private static final int READ_CHUNK = 8192;
+    // Двійковий формат saveBinary()/loadBinary(): "NLST", версія 1
+    private static final int BINARY_MAGIC = 0x4E4C5354;
+    private static final byte BINARY_VERSION = 1;
+    private static final int BINARY_HEADER = 20;
+    private static final int BINARY_CHUNK = 1 << 16;
+    // Шматок десяткового запису при потоковому виведенні
+    private static final int WRITE_CHUNK = 1 << 16;
+    // Шматок одного асинхронного читання чи запису
+    private static final int ASYNC_CHUNK = 1 << 16;
+    // Менші файли читаються звичайним FileChannel.read, більші - відображаються
+    // в пам'ять вікнами (менше 2 ГБ - межі ByteBuffer-подання сегмента)
+    private static final long MAP_THRESHOLD = 1L << 18;
+    private static final long MAP_WINDOW = 1L << 30;
+    // Цифри і пробільні символи займають по одному байту ASCII у кодуванні за замовчуванням
+    private static final boolean ASCII_DEFAULT = Charset.defaultCharset().equals(StandardCharsets.UTF_8)
+            || Charset.defaultCharset().equals(StandardCharsets.US_ASCII)
+            || Charset.defaultCharset().equals(StandardCharsets.ISO_8859_1);
+
+    // Поля для реалізації кільцевого двонаправленого списку.
+    // Кожен вузол зберігає блок цифр, а не одну цифру (розгорнутий список):
+    // менше об'єктів і краща локальність при обході.
     private static class Node {
-        Byte value;
+        final byte[] digits = new byte[BLOCK_SIZE];
+        int count;
         Node next;
         Node prev;
-        Node(Byte v) { this.value = v; }
     }
 
     // Кільцевий двонаправлений:
     private Node head = null; // коли буде порожній список
+    private int headOff = 0;  // позиція першої цифри всередині head
     private int size = 0;
 
+    // Знак числа: список зберігає модуль, а від'ємний результат віднімання
+    // позначається цим прапорцем. Порожній список завжди вважається нулем.
+    private boolean negative = false;
+
+    // Система числення цифр: PRIMARY_BASE, або SECONDARY_BASE для результату changeScale()
+    private int base = PRIMARY_BASE;
+
+    // Фізичні позиції рахуються від початку блоку head (а не від першої цифри),
+    // тому цифра з індексом i лежить на фізичній позиції (headOff + i) mod size.
+    // Цифри head[0..headOff) - це кінець числа.
+
+    // "Палець": вузол, знайдений останнім викликом nodeAt, і його фізичний початок.
+    // Наступні пошуки поруч з ним проходять лише відстань від нього.
+    private Node finger = null;
+    private int fingerStart = 0;
+
+    // Індекс блоків для пошуку за O(log n), будується ліниво і скидається при
+    // будь-якій структурній зміні. Початки блоків рахуються від блоку, який був
+    // head під час побудови; skipShift - зсув поточного head відносно нього.
+    private Node[] skipNodes = null;
+    private int[] skipStarts = null;
+    private int skipShift = 0;
+
+    // Лічильник структурних змін (вставки, видалення, зсуви) для ітераторів
+    private int modCount = 0;
+
+    // Похідні значення, обчислені з поточних цифр. Скидаються invalidate()
+    // при будь-якій зміні цифр, структурній чи ні (set, swap, сортування).
+    private String cachedDecimal = null;
+    private NumberListImpl cachedConverted = null; // останній результат toBase()
+
     /**
      * Default constructor. Returns empty <tt>NumberListImpl</tt>
      */
     public NumberListImpl() {
         // порожній список
         this.head = null;
+        this.headOff = 0;
         this.size = 0;
     }
 
@@ -85,720 +176,2862 @@ public class NumberListImpl implements NumberList {
             // залишаємо пустий список
             return;
         }
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine();
-            if (line != null) {
-                // викликаємо string-конструктор для розбору десяткового рядка
-                NumberListImpl tmp = new NumberListImpl(line.trim());
-                // копіюємо цифри з tmp у поточний список
-                for (Iterator<Byte> it = tmp.iterator(); it.hasNext();) {
-                    this.add(it.next());
+        try {
+            // ASCII-сумісне кодування: байти файлу розбираються прямо з
+            // буфера каналу чи відображеної пам'яті; інакше - через Reader
+            boolean ascii = false;
+            if (ASCII_DEFAULT) {
+                try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    ascii = readAscii(ch);
+                }
+            }
+            if (!ascii) {
+                try (FileReader in = new FileReader(file)) {
+                    readDecimal(in);
                 }
             }
         } catch (IOException ex) {
             // при помилці зчитування лишаємо список пустим
+            clear();
         }
     }
 
 
     /**
-     * Constructs new <tt>NumberListImpl</tt> by <b>decimal</b> number
-     * in string notation.
+     * Створює список з десяткового числа у першому рядку буфера, зокрема
+     * відображеної у пам'ять частини файлу (<tt>FileChannel.map</tt>).
+     * Байти від position до limit розбираються як ASCII без копіювання;
+     * position буфера не змінюється. Правила розбору ті самі, що й у
+     * конструкторі з <tt>File</tt>; не-ASCII байт дає порожній список.
      *
-     * @param value - number in string notation.
+     * @param bytes - буфер з десятковим записом числа.
      */
-    public NumberListImpl(String value) {
+    public NumberListImpl(ByteBuffer bytes) {
         this();
-        if (value == null) return;
-        String s = value.trim();
-        if (s.isEmpty()) return;
-        // Якщо рядок починається з '-' - тест очікує порожній список
-        if (s.startsWith("-")) return;
-        // Перевіримо, що рядок містить тільки цифри (десяткове представлення)
-        for (int i = 0; i < s.length(); i++) {
-            if (!Character.isDigit(s.charAt(i))) {
-                // нечисловий рядок -> порожній список
-                return;
-            }
-        }
-        try {
-            BigInteger val = new BigInteger(s); // десяткова система
-            if (val.equals(BigInteger.ZERO)) {
-                // За тестами: нуль -> порожній список
-                return;
-            }
-            NumberListImpl tmp = fromBigInteger(val, PRIMARY_BASE);
-            // Копіюємо цифри з tmp в поточний список
-            for (Iterator<Byte> it = tmp.iterator(); it.hasNext();) {
-                this.add(it.next());
-            }
-        } catch (NumberFormatException ex) {
-            // залишимо список пустим
-            return;
-        }
+        if (bytes == null) return;
+        DecimalParser p = new DecimalParser();
+        if (p.acceptAscii(bytes)) p.finishInto(this);
     }
 
 
     /**
-     * Saves the number, stored in the list, into specified file
-     * in <b>decimal</b> scale of notation.
+     * Створює список з десяткового числа, записаного у першому рядку потоку
+     * символів. Розбір такий самий, як у конструкторі з <tt>String</tt>, але
+     * рядок не зберігається: символи читаються шматками і одразу переводяться
+     * в основну систему. Потік не закривається.
      *
-     * @param file - file where number has to be stored.
+     * @param in - джерело символів.
+     * @throws java.io.UncheckedIOException при помилці зчитування.
      */
-    public void saveList(File file) {
-        if (file == null) throw new IllegalArgumentException("file is null");
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs();
-        }
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
-            bw.write(this.toDecimalString());
-            bw.newLine();
+    public NumberListImpl(Reader in) {
+        this();
+        if (in == null) return;
+        try {
+            readDecimal(in);
         } catch (IOException ex) {
-            throw new RuntimeException("Failed to write list to file", ex);
+            throw new UncheckedIOException("Failed to read number", ex);
         }
     }
 
 
     /**
-     * Returns student's record book number, which has 4 decimal digits.
+     * Створює список з десяткового числа у першому рядку потоку байтів
+     * (кодування за замовчуванням, як у конструкторі з <tt>File</tt>).
+     * Потік не закривається.
      *
-     * @return student's record book number.
+     * @param in - джерело байтів.
+     * @throws java.io.UncheckedIOException при помилці зчитування.
      */
-    public static int getRecordBookNumber() {
-        return GRADEBOOK;
+    public NumberListImpl(InputStream in) {
+        this(in == null ? null : new InputStreamReader(in));
     }
 
 
     /**
-     * Returns new <tt>NumberListImpl</tt> which represents the same number
-     * in other scale of notation, defined by personal test assignment.<p>
-     *
-     * Does not impact the original list.
+     * Створює список з десяткового числа у першому рядку каналу
+     * (кодування за замовчуванням). Канал не закривається.
      *
-     * @return <tt>NumberListImpl</tt> in other scale of notation.
+     * @param in - канал, з якого читаються байти.
+     * @throws java.io.UncheckedIOException при помилці зчитування.
      */
-    public NumberListImpl changeScale() {
-        BigInteger val = toBigInteger(PRIMARY_BASE);
-        return fromBigInteger(val, SECONDARY_BASE);
+    public NumberListImpl(ReadableByteChannel in) {
+        this(in == null ? null : Channels.newReader(in, Charset.defaultCharset().newDecoder(), -1));
     }
 
 
     /**
-     * Returns new <tt>NumberListImpl</tt> which represents the result of
-     * additional operation, defined by personal test assignment.<p>
-     *
-     * Does not impact the original list.
-     *
-     * @param arg - second argument of additional operation
+     * Constructs new <tt>NumberListImpl</tt> by <b>decimal</b> number
+     * in string notation.
      *
-     * @return result of additional operation.
+     * @param value - number in string notation.
      */
-    public NumberListImpl additionalOperation(NumberList arg) {
-        if (arg == null) throw new IllegalArgumentException("Argument is null");
-        // Конвертуємо обидва операнди в BigInteger, вважаючи що вони у PRIMARY_BASE
-        BigInteger a = this.toBigInteger(PRIMARY_BASE);
-        BigInteger b = numberListToBigInteger(arg, PRIMARY_BASE);
-
-        BigInteger result;
-        switch (OPERATION_TYPE) {
-            case 0: // додавання
-                result = a.add(b);
-                break;
-            case 1: // віднімання
-                result = a.subtract(b);
-                break;
-            case 2: // множення
-                result = a.multiply(b);
-                break;
-            case 3: // ціла частина ділення
-                if (b.equals(BigInteger.ZERO)) throw new ArithmeticException("Division by zero");
-                result = a.divide(b);
-                break;
-            case 4: // залишок від ділення
-                if (b.equals(BigInteger.ZERO)) throw new ArithmeticException("Division by zero");
-                result = a.remainder(b);
-                break;
-            case 5: // AND
-                result = a.and(b);
-                break;
-            case 6: // OR
-                result = a.or(b);
-                break;
-            default:
-                throw new UnsupportedOperationException("Unsupported operation type: " + OPERATION_TYPE);
-        }
-
-        // Повертаємо результат як NumberListImpl у PRIMARY_BASE
-        return fromBigInteger(result, PRIMARY_BASE);
+    public NumberListImpl(String value) {
+        this();
+        byte[] digits = parseDecimal(value);
+        if (digits != null) appendDigits(digits, 0, digits.length);
     }
 
 
     /**
-     * Returns string representation of number, stored in the list
-     * in <b>decimal</b> scale of notation.
-     *
-     * @return string representation in <b>decimal</b> scale.
+     * Цифри основної системи числення для десяткового рядка, без ведучих
+     * нулів (нуль - порожній масив); null - якщо рядок порожній чи нечисловий
      */
-    public String toDecimalString() {
-        if (this.isEmpty()) return "0";
-        BigInteger val = this.toBigInteger(PRIMARY_BASE);
-        return val.toString();
+    static byte[] parseDecimal(String value) {
+        if (value == null) return null;
+        String s = value.trim();
+        if (s.isEmpty()) return null;
+        // Якщо рядок починається з '-' - тест очікує порожній список
+        if (s.startsWith("-")) return null;
+        // Перевіримо, що рядок містить тільки цифри (десяткове представлення)
+        byte[] decimal = new byte[s.length()];
+        for (int i = 0; i < s.length(); i++) {
+            int d = Character.digit(s.charAt(i), 10);
+            if (d < 0) {
+                // нечисловий рядок -> порожній список
+                return null;
+            }
+            decimal[i] = (byte) d;
+        }
+        // Переводимо шматками і збираємо за схемою "розділяй і владарюй" (BaseConversion).
+        // За тестами: нуль -> порожній список, ведучі нулі відкидаються
+        return BaseConversion.convert(decimal, 10, PRIMARY_BASE);
     }
 
 
-    @Override
-    public String toString() {
-        // Повертаємо представлення числа у вигляді символів у поточній (primary) системі числення,
-        // без дужок або роздільників. Порожній список -> пустий рядок.
-        if (this.isEmpty()) return "";
+    /**
+     * Читає перший рядок in шматками по READ_CHUNK символів
+     */
+    private void readDecimal(Reader in) throws IOException {
+        readDecimalLine(in).finishInto(this);
+    }
 
-        StringBuilder sb = new StringBuilder(size);
-        Node cur = head;
-        for (int i = 0; i < size; i++) {
-            int digit = toUnsigned(cur.value);
-            // Для бази до 10 - цифри, для 10-16 - A..F
-            if (digit >= 0 && digit <= 9) {
-                sb.append((char) ('0' + digit));
-            } else {
-                sb.append((char) ('A' + (digit - 10)));
+    /**
+     * Розбирає перший рядок in шматками по READ_CHUNK символів
+     */
+    static DecimalParser readDecimalLine(Reader in) throws IOException {
+        DecimalParser p = new DecimalParser();
+        char[] buf = new char[READ_CHUNK];
+        int n;
+        read:
+        while ((n = in.read(buf)) >= 0) {
+            for (int i = 0; i < n; i++) {
+                if (!p.accept(buf[i])) break read;
             }
-            cur = cur.next;
         }
-        return sb.toString();
+        return p;
     }
 
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof NumberListImpl)) return false;
-        NumberListImpl other = (NumberListImpl) o;
-        if (this.size != other.size) return false;
-        Node a = this.head;
-        Node b = other.head;
-        for (int i = 0; i < size; i++) {
-            if (!a.value.equals(b.value)) return false;
-            a = a.next;
-            b = b.next;
+    /**
+     * Розбирає перший рядок файлу як ASCII. Файли до MAP_THRESHOLD байтів
+     * читаються шматками по READ_CHUNK; більші відображаються в пам'ять
+     * вікнами по MAP_WINDOW байтів (тож підходять і файли понад 2 ГБ), і
+     * відображається лише те, що потрібно до кінця рядка. Кожне вікно
+     * належить власній арені і знімається одразу після розбору, а не при
+     * збиранні сміття, тож файл не лишається заблокованим (Windows).
+     *
+     * @return false, якщо трапився не-ASCII байт: тоді файл треба читати
+     *         через Reader з кодуванням за замовчуванням.
+     */
+    private boolean readAscii(FileChannel ch) throws IOException {
+        DecimalParser p = new DecimalParser();
+        long size = ch.size();
+        if (size < MAP_THRESHOLD) {
+            ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK);
+            while (!p.stopped() && ch.read(buf) >= 0) {
+                buf.flip();
+                if (!p.acceptAscii(buf)) return false;
+                buf.clear();
+            }
+        } else {
+            for (long pos = 0; pos < size && !p.stopped(); pos += MAP_WINDOW) {
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment window = ch.map(FileChannel.MapMode.READ_ONLY, pos,
+                            Math.min(MAP_WINDOW, size - pos), arena);
+                    if (!p.acceptAscii(window.asByteBuffer())) return false;
+                }
+            }
         }
+        p.finishInto(this);
         return true;
     }
 
+    /**
+     * Ланцюжок асинхронних читань для loadAsync(). Два буфери: поки один
+     * розбирається, в інший читається наступний шматок. Крок (розбір
+     * прочитаного і запуск наступного читання) виконується, коли
+     * завершилися і читання, і розбір попереднього шматка - хто з них
+     * останній зменшить gate до нуля, той і продовжує. Якщо трапився
+     * не-ASCII байт, файл розбирається заново конструктором з File.
+     */
+    private static final class AsyncLoader implements CompletionHandler<Integer, ByteBuffer> {
+        private final Path path;
+        private final AsynchronousFileChannel ch;
+        private final CompletableFuture<NumberListImpl> result = new CompletableFuture<>();
+        private final DecimalParser parser = new DecimalParser();
+        private final ByteBuffer[] buffers = {ByteBuffer.allocate(ASYNC_CHUNK), ByteBuffer.allocate(ASYNC_CHUNK)};
+        private final AtomicInteger gate = new AtomicInteger();
+        private long position = 0;
+        private int turn = 0;
+        private boolean ascii = ASCII_DEFAULT;
+        // результат останнього читання; видимість забезпечує gate
+        private int readCount;
+        private Throwable readError;
+
+        AsyncLoader(Path path, AsynchronousFileChannel ch) {
+            this.path = path;
+            this.ch = ch;
+        }
 
-    @Override
-    public int size() {
-        return size;
-    }
-
-
-    @Override
-    public boolean isEmpty() {
-        return size == 0;
-    }
+        CompletableFuture<NumberListImpl> start() {
+            if (!ascii) {
+                // кодування за замовчуванням не ASCII-сумісне: лише через Reader
+                close();
+                finish();
+                return result;
+            }
+            gate.set(1);
+            read();
+            return result;
+        }
 
+        private void read() {
+            ByteBuffer buf = buffers[turn];
+            buf.clear();
+            try {
+                ch.read(buf, position, buf, this);
+            } catch (RuntimeException ex) {
+                // канал закритий чи недоступний: так само, як помилка читання
+                failed(ex, buf);
+            }
+        }
 
-    @Override
-    public boolean contains(Object o) {
-        return indexOf(o) != -1;
-    }
+        @Override
+        public void completed(Integer n, ByteBuffer buf) {
+            readCount = n;
+            if (gate.decrementAndGet() == 0) step();
+        }
 
+        @Override
+        public void failed(Throwable exc, ByteBuffer buf) {
+            readError = exc;
+            if (gate.decrementAndGet() == 0) step();
+        }
 
-    @Override
-    public Iterator<Byte> iterator() {
-        return new Iterator<Byte>() {
-            private Node current = head;
-            private int iterated = 0;
-            private boolean canRemove = false;
-            private Node lastReturned = null;
-
-            @Override
-            public boolean hasNext() {
-                return iterated < size;
-            }
-
-            @Override
-            public Byte next() {
-                if (!hasNext()) throw new NoSuchElementException();
-                lastReturned = current;
-                Byte val = current.value;
-                current = current.next;
-                iterated++;
-                canRemove = true;
-                return val;
-            }
-
-            @Override
-            public void remove() {
-                if (!canRemove) throw new IllegalStateException();
-                // видалити останній повернутий вузол
-                if (lastReturned == null) throw new IllegalStateException();
-                Node nodeToRemove = lastReturned;
-                lastReturned = null;
-                canRemove = false;
-                // відповідно коригувати поточний та ітераційний
-                if (nodeToRemove == head) {
-                    if (size == 1) {
-                        head = null;
-                        current = null;
-                    } else {
-                        head = head.next;
-                        // поточний вже вказує на наступний з видалених (оскільки next() перемістив його)
-                    }
+        private void step() {
+            // цикл замість рекурсії: читання часто встигає раніше за розбір
+            do {
+                if (readError != null) {
+                    close();
+                    result.completeExceptionally(readError);
+                    return;
                 }
-                unlinkNode(nodeToRemove);
-                iterated--;
-            }
-        };
-    }
-
-
-    @Override
-    public Object[] toArray() {
-        Object[] arr = new Object[size];
-        Node cur = head;
-        for (int i = 0; i < size; i++) {
-            arr[i] = cur.value;
-            cur = cur.next;
+                if (readCount < 0 || !ascii || parser.stopped()) {
+                    close();
+                    finish();
+                    return;
+                }
+                ByteBuffer buf = buffers[turn];
+                buf.flip();
+                position += readCount;
+                turn ^= 1;
+                // наступне читання - до розбору поточного шматка
+                gate.set(2);
+                read();
+                try {
+                    ascii = parser.acceptAscii(buf);
+                } catch (RuntimeException ex) {
+                    readError = ex;
+                }
+            } while (gate.decrementAndGet() == 0);
         }
-        return arr;
-    }
 
+        private void finish() {
+            if (!ascii) {
+                // FileReader блокує: не в потоці завершення каналу, а в
+                // спільному пулі CompletableFuture
+                result.completeAsync(() -> new NumberListImpl(path.toFile()));
+                return;
+            }
+            try {
+                NumberListImpl res = new NumberListImpl();
+                parser.finishInto(res);
+                result.complete(res);
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
 
-    @Override
-    public <T> T[] toArray(T[] a) {
-        // TODO Auto-generated method stub
-        return null;
+        private void close() {
+            try {
+                ch.close();
+            } catch (IOException ex) {
+                // дані вже прочитані
+            }
+        }
     }
 
+    /**
+     * Ланцюжок асинхронних записів для saveAsync(): наступний шматок
+     * символів готується після завершення запису попереднього, тож у
+     * польоті завжди один запис
+     */
+    private static final class AsyncWriter implements CompletionHandler<Integer, ByteBuffer> {
+        private final Path path;
+        private final DecimalChars src;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final char[] chars = new char[ASYNC_CHUNK];
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(ASYNC_CHUNK);
+        private AsynchronousFileChannel ch;
+        private long position = 0;
+        private boolean eolWritten = false;
+
+        AsyncWriter(Path path, DecimalChars src) {
+            this.path = path;
+            this.src = src;
+        }
 
-    @Override
-    public boolean add(Byte e) {
-        checkDigit(e);
-        // додаємо в кінець (tail = head.prev)
-        if (head == null) {
-            Node n = new Node(e);
-            n.next = n.prev = n;
-            head = n;
-        } else {
-            Node tail = head.prev;
-            Node n = new Node(e);
-            n.prev = tail;
-            n.next = head;
-            tail.next = n;
-            head.prev = n;
+        CompletableFuture<Void> start() {
+            try {
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                ch = AsynchronousFileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException ex) {
+                result.completeExceptionally(ex);
+                return result;
+            }
+            next();
+            return result;
         }
-        size++;
-        return true;
-    }
 
+        private void next() {
+            buf.clear();
+            int n = src.read(chars);
+            if (n > 0) {
+                for (int i = 0; i < n; i++) buf.put((byte) chars[i]);
+            } else if (!eolWritten) {
+                buf.put(System.lineSeparator().getBytes(StandardCharsets.US_ASCII));
+                eolWritten = true;
+            } else {
+                try {
+                    ch.close();
+                    result.complete(null);
+                } catch (IOException ex) {
+                    result.completeExceptionally(ex);
+                }
+                return;
+            }
+            buf.flip();
+            write(buf);
+        }
 
-    @Override
-    public boolean remove(Object o) {
-        int idx = indexOf(o);
-        if (idx == -1) return false;
-        remove(idx);
-        return true;
-    }
+        private void write(ByteBuffer b) {
+            try {
+                ch.write(b, position, b, this);
+            } catch (RuntimeException ex) {
+                // канал закритий чи недоступний: так само, як помилка запису
+                failed(ex, b);
+            }
+        }
 
+        @Override
+        public void completed(Integer n, ByteBuffer b) {
+            position += n;
+            if (b.hasRemaining()) {
+                write(b);
+            } else {
+                next();
+            }
+        }
 
-    @Override
-    public boolean containsAll(Collection<?> c) {
-        if (c == null) throw new NullPointerException();
-        for (Object o : c) if (!contains(o)) return false;
-        return true;
+        @Override
+        public void failed(Throwable exc, ByteBuffer b) {
+            try {
+                ch.close();
+            } catch (IOException ex) {
+                exc.addSuppressed(ex);
+            }
+            result.completeExceptionally(exc);
+        }
     }
 
+    /**
+     * Послідовне читання символів десяткового запису шматками
+     */
+    static final class DecimalChars {
+        private final String text;
+        private final int[] limbs;
+        // поточний лімб у символах; limb[0] - місце для знаку
+        private final char[] limb = new char[DigitArithmetic.DECIMAL.limbDigits + 1];
+        private int pos;
+        private int next; // індекс наступного лімба (від старших до молодших)
+
+        DecimalChars(String text) {
+            this.text = text;
+            this.limbs = null;
+            this.pos = 0;
+        }
 
-    @Override
-    public boolean addAll(Collection<? extends Byte> c) {
-        if (c == null) throw new NullPointerException();
-        boolean changed = false;
-        for (Byte b : c) {
-            add(b);
-            changed = true;
+        DecimalChars(int[] limbs, boolean negative) {
+            this.text = null;
+            this.limbs = limbs;
+            next = DigitArithmetic.DECIMAL.length(limbs) - 1;
+            loadLimb();
+            // у старшому лімбі - без ведучих нулів, зі знаком перед ним
+            while (limb[pos] == '0') pos++;
+            if (negative) limb[--pos] = '-';
         }
-        return changed;
-    }
 
+        private void loadLimb() {
+            int v = limbs[next--];
+            for (int j = limb.length - 1; j > 0; j--) {
+                limb[j] = (char) ('0' + v % 10);
+                v /= 10;
+            }
+            pos = 1;
+        }
 
-    @Override
-    public boolean addAll(int index, Collection<? extends Byte> c) {
-        if (c == null) throw new NullPointerException();
-        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
-        boolean changed = false;
-        int pos = index;
-        for (Byte b : c) {
-            add(pos++, b);
-            changed = true;
+        /**
+         * Заповнює buf наступними символами
+         *
+         * @return кількість символів, 0 - кінець запису.
+         */
+        int read(char[] buf) {
+            if (text != null) {
+                int k = Math.min(buf.length, text.length() - pos);
+                text.getChars(pos, pos + k, buf, 0);
+                pos += k;
+                return k;
+            }
+            int n = 0;
+            while (n < buf.length) {
+                if (pos == limb.length) {
+                    if (next < 0) break;
+                    loadLimb();
+                }
+                int k = Math.min(limb.length - pos, buf.length - n);
+                System.arraycopy(limb, pos, buf, n, k);
+                pos += k;
+                n += k;
+            }
+            return n;
         }
-        return changed;
     }
 
+    /**
+     * Розбір першого рядка десяткового числа по символу, з переведенням
+     * цифр шматками через BaseConversion.Accumulator. Як і для
+     * String.trim(), пробільні символи по краях пропускаються; будь-який
+     * інший нецифровий символ (зокрема '-') лишає список порожнім.
+     */
+    static final class DecimalParser {
+        private final BaseConversion.Accumulator acc = new BaseConversion.Accumulator(10, PRIMARY_BASE);
+        private final byte[] decimal = new byte[READ_CHUNK];
+        private int len = 0;
+        private boolean started = false; // уже були цифри
+        private boolean ended = false;   // після цифр був пробільний символ
+        private boolean invalid = false;
+        private boolean eol = false;
+
+        /**
+         * @return false, якщо рядок скінчився або число некоректне
+         */
+        boolean accept(int c) {
+            if (c == '\n' || c == '\r') {
+                eol = true;
+                return false;
+            }
+            if (c <= ' ') {
+                ended = started;
+                return true;
+            }
+            int d = Character.digit(c, 10);
+            if (d < 0 || ended) {
+                invalid = true;
+                return false;
+            }
+            started = true;
+            decimal[len++] = (byte) d;
+            if (len == decimal.length) {
+                acc.append(decimal, 0, len);
+                len = 0;
+            }
+            return true;
+        }
 
-    @Override
-    public boolean removeAll(Collection<?> c) {
-        if (c == null) throw new NullPointerException();
-        boolean changed = false;
-        Iterator<Byte> it = this.iterator();
-        while (it.hasNext()) {
-            Byte b = it.next();
-            if (c.contains(b)) {
-                it.remove();
-                changed = true;
+        /**
+         * Розбирає байти buf[position..limit) як ASCII, не змінюючи position
+         *
+         * @return false, якщо трапився не-ASCII байт.
+         */
+        boolean acceptAscii(ByteBuffer buf) {
+            for (int i = buf.position(), n = buf.limit(); i < n; i++) {
+                byte b = buf.get(i);
+                if (b < 0) return false;
+                if (!accept(b)) break;
             }
+            return true;
         }
-        return changed;
-    }
 
+        boolean stopped() {
+            return eol || invalid;
+        }
 
-    @Override
-    public boolean retainAll(Collection<?> c) {
-        if (c == null) throw new NullPointerException();
-        boolean changed = false;
-        Iterator<Byte> it = this.iterator();
-        while (it.hasNext()) {
-            Byte b = it.next();
-            if (!c.contains(b)) {
-                it.remove();
-                changed = true;
-            }
+        void finishInto(NumberListImpl l) {
+            if (invalid) return;
+            acc.append(decimal, 0, len);
+            l.appendLimbs(acc.finish(), acc.target());
         }
-        return changed;
-    }
 
+        /**
+         * Цифри основної системи без ведучих нулів; null - якщо число некоректне
+         */
+        byte[] finish() {
+            int[] limbs = finishLimbs();
+            return limbs == null ? null : acc.target().toDigits(limbs);
+        }
 
-    @Override
-    public void clear() {
-        head = null;
-        size = 0;
+        /**
+         * Як finish(), але повертає лімби DigitArithmetic.PRIMARY (можливо,
+         * зі старшими нулями), не розгортаючи їх у цифри
+         */
+        int[] finishLimbs() {
+            if (invalid) return null;
+            acc.append(decimal, 0, len);
+            return acc.finish();
+        }
     }
 
 
-    @Override
-    public Byte get(int index) {
-        Node n = nodeAt(index);
-        return n.value;
+    /**
+     * Створює список з цифр основної системи числення.
+     *
+     * @param digits - цифри числа від старшої до молодшої.
+     */
+    public NumberListImpl(byte[] digits) {
+        this();
+        if (digits == null) throw new NullPointerException();
+        for (byte d : digits) checkDigit(d, PRIMARY_BASE);
+        appendDigits(digits, 0, digits.length);
     }
 
 
-    @Override
-    public Byte set(int index, Byte element) {
-        checkDigit(element);
-        Node n = nodeAt(index);
-        Byte old = n.value;
-        n.value = element;
-        return old;
+    /**
+     * Saves the number, stored in the list, into specified file
+     * in <b>decimal</b> scale of notation.
+     *
+     * @param file - file where number has to be stored.
+     */
+    public void saveList(File file) {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        saveDecimal(file, decimalChars());
+    }
+
+    /**
+     * Тіло saveList, спільне з OffHeapNumberList: десятковий запис з src
+     * пишеться у файл шматками, без проміжного рядка, і завершується
+     * переходом на новий рядок
+     */
+    static void saveDecimal(File file, DecimalChars src) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try {
+            if (ASCII_DEFAULT) {
+                try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeDecimalTo(src, ch);
+                    ByteBuffer eol = ByteBuffer.wrap(System.lineSeparator().getBytes(StandardCharsets.US_ASCII));
+                    while (eol.hasRemaining()) ch.write(eol);
+                }
+            } else {
+                try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+                    writeDecimalTo(src, bw);
+                    bw.newLine();
+                }
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to write list to file", ex);
+        }
+    }
+
+
+    /**
+     * Записує десятковий запис числа (як toDecimalString(), без переходу на
+     * новий рядок) у потік символів шматками по WRITE_CHUNK символів, не
+     * будуючи рядок цілком. Потік не закривається.
+     *
+     * @param out - приймач символів.
+     * @throws java.io.UncheckedIOException при помилці запису.
+     */
+    public void writeDecimal(Writer out) {
+        if (out == null) throw new IllegalArgumentException("out is null");
+        try {
+            writeDecimalTo(decimalChars(), out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write number", ex);
+        }
+    }
+
+
+    /**
+     * Записує десятковий запис числа у канал ASCII-байтами через прямий
+     * буфер на WRITE_CHUNK байтів. Канал не закривається.
+     *
+     * @param out - канал-приймач.
+     * @throws java.io.UncheckedIOException при помилці запису.
+     */
+    public void writeDecimal(WritableByteChannel out) {
+        if (out == null) throw new IllegalArgumentException("out is null");
+        try {
+            writeDecimalTo(decimalChars(), out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write number", ex);
+        }
+    }
+
+    private static void writeDecimalTo(DecimalChars src, Writer out) throws IOException {
+        char[] buf = new char[WRITE_CHUNK];
+        int n;
+        while ((n = src.read(buf)) > 0) {
+            out.write(buf, 0, n);
+        }
+    }
+
+    private static void writeDecimalTo(DecimalChars src, WritableByteChannel out) throws IOException {
+        char[] chars = new char[WRITE_CHUNK];
+        // буфер на один виклик, як в AsyncWriter: звільняється разом з ним
+        ByteBuffer buf = ByteBuffer.allocateDirect(WRITE_CHUNK);
+        int n;
+        while ((n = src.read(chars)) > 0) {
+            buf.clear();
+            for (int i = 0; i < n; i++) buf.put((byte) chars[i]);
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+        }
+    }
+
+    /**
+     * Джерело символів десяткового запису: готовий рядок з кешу або лімби
+     * по 10^9, які розгортаються у символи по одному лімбу. Блоки цифр
+     * подаються в BaseConversion.Accumulator прямо з кільця, без копії
+     * всього числа.
+     */
+    private DecimalChars decimalChars() {
+        if (cachedDecimal != null) return new DecimalChars(cachedDecimal);
+        BaseConversion.Accumulator acc = new BaseConversion.Accumulator(base, 10);
+        Node cur = head;
+        int off = headOff;
+        int pos = 0;
+        while (pos < size) {
+            int len = Math.min(cur.count - off, size - pos);
+            acc.append(cur.digits, off, len);
+            pos += len;
+            cur = cur.next;
+            off = 0;
+        }
+        return decimalChars(acc.finish(), isNegative());
+    }
+
+    /**
+     * Джерело символів для десяткових лімбів limbs (можливо, зі старшими нулями)
+     */
+    static DecimalChars decimalChars(int[] limbs, boolean negative) {
+        if (DigitArithmetic.DECIMAL.length(limbs) == 0) return new DecimalChars("0");
+        return new DecimalChars(limbs, negative);
+    }
+
+
+    /**
+     * Асинхронно завантажує число з першого рядка файлу з тим самим
+     * результатом, що й конструктор з <tt>File</tt>: від'ємне чи нечислове
+     * значення дає порожній список. Файл читається через
+     * <tt>AsynchronousFileChannel</tt> шматками по ASYNC_CHUNK байтів;
+     * наступне читання запускається до розбору поточного шматка, тож
+     * переведення цифр іде паралельно з введенням, і жоден потік не чекає
+     * на диск. Файл з не-ASCII вмістом (або не ASCII-сумісне кодування за
+     * замовчуванням) розбирається через Reader, як у конструкторі з
+     * <tt>File</tt>.
+     *
+     * @param path - шлях до файлу.
+     * @return майбутній результат; завершується з помилкою, якщо файл
+     *         не вдалося відкрити чи прочитати.
+     */
+    public static CompletableFuture<NumberListImpl> loadAsync(Path path) {
+        if (path == null) throw new IllegalArgumentException("path is null");
+        AsynchronousFileChannel ch;
+        try {
+            ch = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            CompletableFuture<NumberListImpl> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+        return new AsyncLoader(path, ch).start();
+    }
+
+
+    /**
+     * Асинхронно зберігає число у файл у десятковій системі, як saveList
+     * (ASCII, з переходом на новий рядок). Цифри копіюються під час
+     * виклику, тож після повернення список можна змінювати. Переведення
+     * виконується у спільному пулі ForkJoinPool, а запис шматками по
+     * ASYNC_CHUNK байтів іде через <tt>AsynchronousFileChannel</tt>.
+     *
+     * @param path - шлях до файлу; відсутні каталоги створюються.
+     * @return майбутнє завершення запису.
+     */
+    public CompletableFuture<Void> saveAsync(Path path) {
+        if (path == null) throw new IllegalArgumentException("path is null");
+        String text = cachedDecimal;
+        byte[] digits = text == null ? toByteArray() : null;
+        int b = base;
+        boolean neg = isNegative();
+        return CompletableFuture.supplyAsync(() -> text != null ? new DecimalChars(text)
+                        : decimalChars(BaseConversion.convertToLimbs(digits, b, 10), neg))
+                .thenCompose(src -> new AsyncWriter(path, src).start());
+    }
+
+
+    /**
+     * Зберігає число у компактному двійковому форматі: заголовок (сигнатура,
+     * версія, основа, знак, кількість цифр, CRC32) і цифри, упаковані по
+     * ceil(log2(основа)) бітів, старші першими. На відміну від saveList,
+     * переведення у десяткову систему не потрібне: запис лінійний.
+     * Для обміну з іншими програмами лишається saveList.
+     *
+     * @param file - файл, куди записується число.
+     */
+    public void saveBinary(File file) {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = binaryHeader(base, isNegative(), size, 0);
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, BINARY_HEADER - 4);
+            ch.position(BINARY_HEADER);
+
+            int bits = bitsPerDigit(base);
+            ByteBuffer out = ByteBuffer.allocate(BINARY_CHUNK);
+            int acc = 0;
+            int nbits = 0;
+            Node cur = head;
+            int off = headOff;
+            for (int left = size; left > 0; ) {
+                int len = Math.min(cur.count - off, left);
+                byte[] digits = cur.digits;
+                for (int i = off; i < off + len; i++) {
+                    acc = (acc << bits) | digits[i];
+                    nbits += bits;
+                    if (nbits >= 8) {
+                        nbits -= 8;
+                        out.put((byte) (acc >>> nbits));
+                        if (!out.hasRemaining()) writeChunk(ch, out, crc);
+                    }
+                }
+                left -= len;
+                cur = cur.next;
+                off = 0;
+            }
+            if (nbits > 0) out.put((byte) (acc << (8 - nbits)));
+            writeChunk(ch, out, crc);
+
+            ch.write(binaryHeader(base, isNegative(), size, (int) crc.getValue()), 0);
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to write list to file", ex);
+        }
+    }
+
+
+    /**
+     * Завантажує число, збережене saveBinary(). Цифри розпаковуються
+     * потоком шматками по BINARY_CHUNK байтів; контрольна сума перевіряється
+     * наприкінці.
+     *
+     * @param file - файл у двійковому форматі.
+     * @return завантажене число (у тій самій системі числення і зі знаком).
+     * @throws java.io.UncheckedIOException якщо файл не читається, має
+     *         інший формат або пошкоджений.
+     */
+    public static NumberListImpl loadBinary(File file) {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BINARY_HEADER);
+            if (readFully(ch, header) < BINARY_HEADER || header.getInt(0) != BINARY_MAGIC) {
+                throw new IOException("Not a binary number file");
+            }
+            if (header.get(4) != BINARY_VERSION) throw new IOException("Unsupported format version: " + header.get(4));
+            int base = header.get(5);
+            boolean negative = (header.get(6) & 1) != 0;
+            long count = header.getLong(8);
+            if (base < 2 || base > MAX_BASE || count < 0 || count > Integer.MAX_VALUE) {
+                throw new IOException("Corrupted header");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, BINARY_HEADER - 4);
+
+            NumberListImpl res = new NumberListImpl();
+            res.base = base;
+            int bits = bitsPerDigit(base);
+            int mask = (1 << bits) - 1;
+            ByteBuffer in = ByteBuffer.allocate(BINARY_CHUNK);
+            byte[] digits = new byte[BINARY_CHUNK];
+            int acc = 0;
+            int nbits = 0;
+            long left = count;
+            int n;
+            while ((n = readFully(ch, in)) > 0) {
+                crc.update(in.array(), 0, n);
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    if (left == 0) throw new IOException("Unexpected data after digits");
+                    acc = (acc << 8) | (in.get(i) & 0xFF);
+                    nbits += 8;
+                    while (nbits >= bits && left > 0) {
+                        nbits -= bits;
+                        int d = (acc >>> nbits) & mask;
+                        if (d >= base) throw new IOException("Corrupted digit data");
+                        digits[k++] = (byte) d;
+                        left--;
+                    }
+                    acc &= (1 << nbits) - 1;
+                    if (k > digits.length - 8) {
+                        res.appendDigits(digits, 0, k);
+                        k = 0;
+                    }
+                }
+                res.appendDigits(digits, 0, k);
+                in.clear();
+            }
+            if (left > 0) throw new IOException("Truncated digit data");
+            if ((int) crc.getValue() != header.getInt(BINARY_HEADER - 4)) throw new IOException("Checksum mismatch");
+            res.negative = negative;
+            return res;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read list from file", ex);
+        }
+    }
+
+
+    /**
+     * Returns student's record book number, which has 4 decimal digits.
+     *
+     * @return student's record book number.
+     */
+    public static int getRecordBookNumber() {
+        return GRADEBOOK;
+    }
+
+
+    /**
+     * Returns new <tt>NumberListImpl</tt> which represents the same number
+     * in other scale of notation, defined by personal test assignment.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @return <tt>NumberListImpl</tt> in other scale of notation.
+     */
+    public NumberListImpl changeScale() {
+        return toBase(SECONDARY_BASE);
+    }
+
+
+    /**
+     * Повертає нове число з тим самим значенням у системі числення target.
+     * Між основами-степенями двійки (2, 4, 8, 16) цифри лише перегруповуються
+     * за один прохід; для інших пар використовується BaseConversion.
+     * Поточний список не змінюється.
+     *
+     * @param target - основа системи числення (від 2 до 16).
+     * @return число у системі числення target.
+     */
+    public NumberListImpl toBase(int target) {
+        if (target < 2 || target > MAX_BASE) throw new IllegalArgumentException("Unsupported base: " + target);
+        if (cachedConverted == null || cachedConverted.base != target) {
+            cachedConverted = convertTo(target);
+        }
+        // кеш не віддаємо назовні: результат змінюваний
+        NumberListImpl res = copyOf(cachedConverted);
+        res.negative = negative;
+        return res;
+    }
+
+    private NumberListImpl convertTo(int target) {
+        byte[] digits = (isPowerOfTwo(base) && isPowerOfTwo(target))
+                ? regroupBits(target)
+                : BaseConversion.convert(toByteArray(), base, target);
+        NumberListImpl res = new NumberListImpl();
+        res.base = target;
+        res.appendDigits(digits, 0, digits.length);
+        return res;
+    }
+
+
+    /**
+     * Returns new <tt>NumberListImpl</tt> which represents the result of
+     * additional operation, defined by personal test assignment.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @param arg - second argument of additional operation
+     *
+     * @return result of additional operation.
+     */
+    public NumberListImpl additionalOperation(NumberList arg) {
+        switch (OPERATION_TYPE) {
+            case 0: return add(arg);
+            case 1: return subtract(arg);
+            case 2: return multiply(arg);
+            case 3: return divide(arg);
+            case 4: return remainder(arg);
+            case 5: return and(arg);
+            case 6: return or(arg);
+            default:
+                throw new UnsupportedOperationException("Unsupported operation type: " + OPERATION_TYPE);
+        }
+    }
+
+
+    /**
+     * Повертає суму цього числа і arg. Обчислюється поцифрово в основній
+     * системі числення, без переведення у <tt>BigInteger</tt>.
+     *
+     * @param arg - другий доданок.
+     * @return нове число - сума.
+     */
+    public NumberListImpl add(NumberList arg) {
+        NumberListImpl a = inPrimary();
+        NumberListImpl b = operand(arg);
+        if (a.isNegative() == b.isNegative()) {
+            NumberListImpl res = addMagnitudes(a, b);
+            res.negative = a.isNegative();
+            return res;
+        }
+        // різні знаки: a + (-b) = a - b
+        NumberListImpl res = subtractMagnitudes(a, b);
+        if (a.isNegative()) res.negative = !res.negative;
+        return res;
+    }
+
+
+    /**
+     * Повертає різницю цього числа і arg; результат може бути від'ємним.
+     *
+     * @param arg - від'ємник.
+     * @return нове число - різниця.
+     */
+    public NumberListImpl subtract(NumberList arg) {
+        return subtract(inPrimary(), operand(arg));
+    }
+
+
+    /**
+     * Додає arg до цього числа на місці, без створення списку-результату:
+     * цифри переписуються у наявних блоках, а кільце росте чи скорочується
+     * лише з боку старших розрядів. Результат лишається у системі числення
+     * цього списку.<p>
+     *
+     * arg може бути цим самим списком (x += x): тоді він спершу копіюється.
+     * Представлення subList() цього списку як аргумент теж копіюється, бо
+     * не є <tt>NumberListImpl</tt>.
+     *
+     * @param arg - доданок.
+     * @return цей список.
+     */
+    public NumberListImpl addInPlace(NumberList arg) {
+        NumberListImpl b = accumuland(arg);
+        accumulate(b, b.isNegative());
+        return this;
+    }
+
+
+    /**
+     * Віднімає arg від цього числа на місці; результат може стати від'ємним.
+     * Правила щодо аліасингу ті самі, що й для {@link #addInPlace(NumberList)};
+     * x -= x просто очищає список.
+     *
+     * @param arg - від'ємник.
+     * @return цей список.
+     */
+    public NumberListImpl subtractInPlace(NumberList arg) {
+        if (arg == this) {
+            clear();
+            return this;
+        }
+        NumberListImpl b = accumuland(arg);
+        accumulate(b, !b.isNegative());
+        return this;
+    }
+
+
+    /**
+     * Повертає добуток цього числа і arg.
+     *
+     * @param arg - другий множник.
+     * @return нове число - добуток.
+     */
+    public NumberListImpl multiply(NumberList arg) {
+        NumberListImpl a = inPrimary();
+        NumberListImpl b = operand(arg);
+        int[] prod = DigitArithmetic.PRIMARY.multiply(DigitArithmetic.PRIMARY.toLimbs(a.toByteArray()),
+                DigitArithmetic.PRIMARY.toLimbs(b.toByteArray()));
+        NumberListImpl res = new NumberListImpl(DigitArithmetic.PRIMARY.toDigits(prod));
+        res.negative = isNegative() != b.isNegative();
+        return res;
+    }
+
+
+    /**
+     * Повертає частку від ділення цього числа на arg, округлену до нуля
+     * (як <tt>BigInteger.divide</tt>).
+     *
+     * @param arg - дільник.
+     * @return нове число - частка.
+     * @throws ArithmeticException якщо arg дорівнює нулю.
+     */
+    public NumberListImpl divide(NumberList arg) {
+        NumberListImpl b = operand(arg);
+        NumberListImpl res = new NumberListImpl(DigitArithmetic.PRIMARY.toDigits(inPrimary().divideLimbs(b)[0]));
+        res.negative = isNegative() != b.isNegative();
+        return res;
+    }
+
+
+    /**
+     * Повертає остачу від ділення цього числа на arg; знак остачі збігається
+     * зі знаком діленого (як <tt>BigInteger.remainder</tt>).
+     *
+     * @param arg - дільник.
+     * @return нове число - остача.
+     * @throws ArithmeticException якщо arg дорівнює нулю.
+     */
+    public NumberListImpl remainder(NumberList arg) {
+        NumberListImpl b = operand(arg);
+        NumberListImpl res = new NumberListImpl(DigitArithmetic.PRIMARY.toDigits(inPrimary().divideLimbs(b)[1]));
+        res.negative = isNegative();
+        return res;
+    }
+
+
+    /**
+     * Повертає порозрядне AND двійкових представлень чисел.
+     *
+     * @param arg - другий операнд.
+     * @return нове число - результат AND.
+     * @throws ArithmeticException якщо хоча б один операнд від'ємний.
+     */
+    public NumberListImpl and(NumberList arg) {
+        return inPrimary().bitwise(operand(arg), true);
+    }
+
+
+    /**
+     * Повертає порозрядне OR двійкових представлень чисел.
+     *
+     * @param arg - другий операнд.
+     * @return нове число - результат OR.
+     * @throws ArithmeticException якщо хоча б один операнд від'ємний.
+     */
+    public NumberListImpl or(NumberList arg) {
+        return inPrimary().bitwise(operand(arg), false);
+    }
+
+
+    /**
+     * Returns string representation of number, stored in the list
+     * in <b>decimal</b> scale of notation.
+     *
+     * @return string representation in <b>decimal</b> scale.
+     */
+    public String toDecimalString() {
+        if (cachedDecimal != null) return cachedDecimal;
+        byte[] dec = BaseConversion.convert(toByteArray(), base, 10);
+        if (dec.length == 0) return cachedDecimal = "0";
+        StringBuilder sb = new StringBuilder(dec.length + 1);
+        if (isNegative()) sb.append('-');
+        for (byte d : dec) sb.append((char) ('0' + d));
+        return cachedDecimal = sb.toString();
+    }
+
+
+    /**
+     * Чи є число від'ємним (результат віднімання більшого числа з меншого).
+     * Цифри списку при цьому зберігають модуль числа.
+     *
+     * @return <tt>true</tt>, якщо число менше нуля.
+     */
+    public boolean isNegative() {
+        return negative && size > 0;
+    }
+
+
+    @Override
+    public String toString() {
+        // Повертаємо представлення числа у вигляді символів у поточній (primary) системі числення,
+        // без дужок або роздільників. Порожній список -> пустий рядок.
+        if (this.isEmpty()) return "";
+
+        StringBuilder sb = new StringBuilder(size + 1);
+        if (negative) sb.append('-');
+        Node cur = head;
+        int off = headOff;
+        for (int i = 0; i < size; i++) {
+            int digit = cur.digits[off] & 0xFF;
+            // Для бази до 10 - цифри, для 10-16 - A..F
+            if (digit >= 0 && digit <= 9) {
+                sb.append((char) ('0' + digit));
+            } else {
+                sb.append((char) ('A' + (digit - 10)));
+            }
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NumberListImpl)) return false;
+        NumberListImpl other = (NumberListImpl) o;
+        if (this.size != other.size) return false;
+        if (this.isNegative() != other.isNegative()) return false;
+        if (this.base != other.base) return false;
+        Node a = this.head;
+        Node b = other.head;
+        int offA = this.headOff;
+        int offB = other.headOff;
+        for (int i = 0; i < size; i++) {
+            if (a.digits[offA] != b.digits[offB]) return false;
+            if (++offA == a.count) {
+                a = a.next;
+                offA = 0;
+            }
+            if (++offB == b.count) {
+                b = b.next;
+                offB = 0;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+
+    @Override
+    public Iterator<Byte> iterator() {
+        return new Itr(0);
+    }
+
+
+    @Override
+    public Object[] toArray() {
+        Object[] arr = new Object[size];
+        Node cur = head;
+        int off = headOff;
+        for (int i = 0; i < size; i++) {
+            arr[i] = cur.digits[off];
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
+        }
+        return arr;
+    }
+
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
+
+    @Override
+    public boolean add(Byte e) {
+        checkDigit(e, base);
+        // додаємо в кінець
+        insertDigit(size, e);
+        return true;
+    }
+
+
+    @Override
+    public boolean remove(Object o) {
+        int idx = indexOf(o);
+        if (idx == -1) return false;
+        remove(idx);
+        return true;
+    }
+
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c == null) throw new NullPointerException();
+        for (Object o : c) if (!contains(o)) return false;
+        return true;
+    }
+
+
+    @Override
+    public boolean addAll(Collection<? extends Byte> c) {
+        return addAll(size, c);
+    }
+
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Byte> c) {
+        if (c == null) throw new NullPointerException();
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        // Спочатку будуємо окремий ланцюжок блоків (і перевіряємо цифри),
+        // потім вшиваємо його у кільце одним пошуком позиції
+        NumberListImpl chain = (c instanceof NumberListImpl && ((NumberListImpl) c).base == base)
+                ? copyOf((NumberListImpl) c) : collect(c, base);
+        if (chain.size == 0) return false;
+        spliceRing(index, chain);
+        return true;
+    }
+
+
+    /**
+     * Переносить усі цифри з іншого списку перед цифрою з індексом index.
+     * Блоки source перевішуються без копіювання, тож вартість не залежить
+     * від кількості цифр у source. Після виклику source порожній.
+     *
+     * @param index - індекс, перед яким вставляються цифри.
+     * @param source - список, цифри якого забираються.
+     */
+    public void transferAll(int index, NumberListImpl source) {
+        if (source == null) throw new NullPointerException();
+        if (source == this) throw new IllegalArgumentException("Cannot transfer list into itself");
+        if (source.base != base) throw new IllegalArgumentException("Cannot transfer digits of base " + source.base);
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        spliceRing(index, source);
+    }
+
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null) throw new NullPointerException();
+        return removeMatching(digitMask(c), true);
+    }
+
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) throw new NullPointerException();
+        return removeMatching(digitMask(c), false);
+    }
+
+
+    /**
+     * Видаляє всі цифри, що задовольняють умові.<p>
+     *
+     * Умова перевіряється один раз для кожного значення цифри, що є у числі,
+     * а не для кожного елемента, тому вона має залежати лише від значення.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Byte> filter) {
+        if (filter == null) throw new NullPointerException();
+        int[] counts = digitHistogram();
+        boolean[] mask = new boolean[256];
+        for (int d = 0; d < counts.length; d++) {
+            if (counts[d] > 0) mask[d] = filter.test((byte) d);
+        }
+        return removeMatching(mask, true);
+    }
+
+
+    @Override
+    public void clear() {
+        head = null;
+        headOff = 0;
+        size = 0;
+        negative = false;
+        modCount++;
+        invalidate();
+        finger = null;
+        skipNodes = null;
+        skipStarts = null;
+    }
+
+
+    @Override
+    public Byte get(int index) {
+        int q = phys(index);
+        Node n = nodeAt(q);
+        return n.digits[q - fingerStart];
+    }
+
+
+    @Override
+    public Byte set(int index, Byte element) {
+        checkDigit(element, base);
+        int q = phys(index);
+        Node n = nodeAt(q);
+        byte old = n.digits[q - fingerStart];
+        n.digits[q - fingerStart] = element;
+        invalidate();
+        return old;
+    }
+
+
+    @Override
+    public int getDigit(int index) {
+        int q = phys(index);
+        Node n = nodeAt(q);
+        return n.digits[q - fingerStart];
+    }
+
+
+    @Override
+    public int setDigit(int index, int digit) {
+        checkDigit(digit, base);
+        int q = phys(index);
+        Node n = nodeAt(q);
+        byte old = n.digits[q - fingerStart];
+        n.digits[q - fingerStart] = (byte) digit;
+        invalidate();
+        return old;
+    }
+
+
+    @Override
+    public void forEachDigit(IntConsumer action) {
+        if (action == null) throw new NullPointerException();
+        int expected = modCount;
+        Node cur = head;
+        int off = headOff;
+        for (int i = 0; i < size; i++) {
+            action.accept(cur.digits[off]);
+            if (modCount != expected) throw new ConcurrentModificationException();
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
+        }
+    }
+
+
+    @Override
+    public IntStream digits() {
+        return StreamSupport.intStream(Spliterators.spliterator(new DigitItr(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] res = new byte[size];
+        Node cur = head;
+        int off = headOff;
+        int pos = 0;
+        // копіюємо цілими шматками блоків
+        while (pos < size) {
+            int len = Math.min(cur.count - off, size - pos);
+            System.arraycopy(cur.digits, off, res, pos, len);
+            pos += len;
+            cur = cur.next;
+            off = 0;
+        }
+        return res;
+    }
+
+
+    @Override
+    public void add(int index, Byte element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        checkDigit(element, base);
+        insertDigit(index, element);
+    }
+
+
+
+    @Override
+    public Byte remove(int index) {
+        int q = phys(index);
+        Node n = nodeAt(q);
+        return removeAt(n, q - fingerStart);
+    }
+
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Byte)) return -1;
+        byte v = (Byte) o;
+        Node cur = head;
+        int off = headOff;
+        for (int i = 0; i < size; i++) {
+            if (cur.digits[off] == v) return i;
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (!(o instanceof Byte) || size == 0) return -1;
+        byte v = (Byte) o;
+        int q = phys(size - 1);
+        Node cur = nodeAt(q);
+        int off = q - fingerStart;
+        for (int i = size - 1; i >= 0; i--) {
+            if (cur.digits[off] == v) return i;
+            if (--off < 0) {
+                cur = cur.prev;
+                off = cur.count - 1;
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    public ListIterator<Byte> listIterator() {
+        // TODO: Наразі повертаємо базовий ListIterator через listIterator(0)
+        return listIterator(0);
+    }
+
+
+    @Override
+    public ListIterator<Byte> listIterator(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        return new Itr(index);
+    }
+
+
+    /**
+     * Ітератор, що рухається по блоках кільця за O(1) на крок.
+     * (node, off) - розташування цифри з індексом cursor; при cursor == size це
+     * перша цифра числа, бо в кільці вона йде одразу після останньої.
+     */
+    private class Itr implements ListIterator<Byte> {
+        private int cursor;
+        private Node node;
+        private int off;
+        private int lastRet = -1;
+        private Node lastNode;
+        private int lastOff;
+        private int expectedModCount = modCount;
+
+        Itr(int index) {
+            cursor = index;
+            if (index == size) {
+                node = head;
+                off = headOff;
+            } else {
+                int q = phys(index);
+                node = nodeAt(q);
+                off = q - fingerStart;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public Byte next() {
+            checkForComodification();
+            if (cursor >= size) throw new NoSuchElementException();
+            lastNode = node;
+            lastOff = off;
+            lastRet = cursor++;
+            if (++off == node.count) {
+                node = node.next;
+                off = 0;
+            }
+            return lastNode.digits[lastOff];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public Byte previous() {
+            checkForComodification();
+            if (cursor <= 0) throw new NoSuchElementException();
+            if (--off < 0) {
+                node = node.prev;
+                off = node.count - 1;
+            }
+            lastNode = node;
+            lastOff = off;
+            lastRet = --cursor;
+            return node.digits[off];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            Node n = lastNode;
+            Node nextBlock = n.next;
+            removeAt(n, lastOff);
+            if (lastRet < cursor) cursor--;
+            lastRet = -1;
+            // наступна цифра зайняла місце видаленої
+            if (cursor == size) {
+                node = head;
+                off = headOff;
+            } else if (n.next == null) {
+                node = nextBlock;
+                off = 0;
+            } else if (lastOff < n.count) {
+                node = n;
+                off = lastOff;
+            } else {
+                node = n.next;
+                off = 0;
+            }
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(Byte e) {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            checkDigit(e, base);
+            lastNode.digits[lastOff] = e;
+            invalidate();
+        }
+
+        @Override
+        public void add(Byte e) {
+            checkForComodification();
+            checkDigit(e, base);
+            if (size == 0) {
+                insertDigit(0, e);
+            } else {
+                boolean beforeHead = node == head && (off < headOff || (off == headOff && cursor == size));
+                Node target = node;
+                Node x = insertAt(target, off, e, beforeHead);
+                // нова цифра лежить у x, поточна - одразу після неї
+                int o = (x == target) ? off : off - target.count;
+                node = x;
+                off = o;
+                if (++off == node.count) {
+                    node = node.next;
+                    off = 0;
+                }
+            }
+            cursor++;
+            lastRet = -1;
+            if (cursor == size) {
+                node = head;
+                off = headOff;
+            }
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+
+    @Override
+    public List<Byte> subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        // Представлення без копіювання цифр
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+
+    /**
+     * Ітератор цифр як int для digits(): лише прохід вперед по блоках.
+     */
+    private class DigitItr implements PrimitiveIterator.OfInt {
+        private int cursor = 0;
+        private Node node = head;
+        private int off = headOff;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (cursor >= size) throw new NoSuchElementException();
+            int d = node.digits[off];
+            cursor++;
+            if (++off == node.count) {
+                node = node.next;
+                off = 0;
+            }
+            return d;
+        }
+    }
+
+    /**
+     * Курсор по цифрах числа для поцифрової арифметики: next() йде від старших
+     * розрядів до молодших, prev() - від молодших до старших.
+     */
+    private static final class DigitCursor {
+        private Node node;
+        private int off;
+
+        DigitCursor(NumberListImpl l, boolean fromEnd) {
+            node = l.head;
+            off = l.headOff;
+            if (fromEnd && node != null) {
+                // остання цифра фізично стоїть перед першою
+                if (off == 0) {
+                    node = node.prev;
+                    off = node.count;
+                }
+                off--;
+            }
+        }
+
+        int next() {
+            int d = node.digits[off];
+            if (++off == node.count) {
+                node = node.next;
+                off = 0;
+            }
+            return d;
+        }
+
+        int prev() {
+            int d = node.digits[off];
+            if (--off < 0) {
+                node = node.prev;
+                off = node.count - 1;
+            }
+            return d;
+        }
+
+        int peek() {
+            return node.digits[off];
+        }
+
+        /**
+         * Записує цифру у поточну позицію і переходить до попередньої
+         */
+        void putPrev(int d) {
+            node.digits[off] = (byte) d;
+            if (--off < 0) {
+                node = node.prev;
+                off = node.count - 1;
+            }
+        }
+    }
+
+    /**
+     * Представлення частини списку: читання і зміни йдуть безпосередньо у блоки
+     * цього списку. Структурна зміна списку в обхід представлення (включно зі
+     * зсувами) робить представлення недійсним.
+     */
+    private class SubList extends AbstractList<Byte> {
+        private final SubList parent;  // представлення, з якого створено це
+        private final int offset;      // індекс першої цифри у NumberListImpl
+        private int size;
+        private int expectedModCount;
+
+        SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = NumberListImpl.this.modCount;
+        }
+
+        @Override
+        public Byte get(int index) {
+            checkIndex(index);
+            checkForComodification();
+            return NumberListImpl.this.get(offset + index);
+        }
+
+        @Override
+        public Byte set(int index, Byte element) {
+            checkIndex(index);
+            checkForComodification();
+            return NumberListImpl.this.set(offset + index, element);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public void add(int index, Byte element) {
+            if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            checkForComodification();
+            NumberListImpl.this.add(offset + index, element);
+            updateSize(1);
+        }
+
+        @Override
+        public Byte remove(int index) {
+            checkIndex(index);
+            checkForComodification();
+            Byte val = NumberListImpl.this.remove(offset + index);
+            updateSize(-1);
+            return val;
+        }
+
+        @Override
+        public ListIterator<Byte> listIterator(int index) {
+            if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            checkForComodification();
+            Itr it = new Itr(offset + index);
+            return new ListIterator<Byte>() {
+                @Override
+                public boolean hasNext() {
+                    return it.nextIndex() < offset + size;
+                }
+
+                @Override
+                public Byte next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return it.next();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return it.previousIndex() >= offset;
+                }
+
+                @Override
+                public Byte previous() {
+                    if (!hasPrevious()) throw new NoSuchElementException();
+                    return it.previous();
+                }
+
+                @Override
+                public int nextIndex() {
+                    return it.nextIndex() - offset;
+                }
+
+                @Override
+                public int previousIndex() {
+                    return it.previousIndex() - offset;
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    updateSize(-1);
+                }
+
+                @Override
+                public void set(Byte e) {
+                    it.set(e);
+                }
+
+                @Override
+                public void add(Byte e) {
+                    it.add(e);
+                    updateSize(1);
+                }
+            };
+        }
+
+        @Override
+        public List<Byte> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException();
+            }
+            checkForComodification();
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        /**
+         * Зміна розміру через представлення відбивається на всіх батьківських
+         */
+        private void updateSize(int delta) {
+            for (SubList v = this; v != null; v = v.parent) {
+                v.size += delta;
+                v.expectedModCount = NumberListImpl.this.modCount;
+            }
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        private void checkForComodification() {
+            if (NumberListImpl.this.modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) return false;
+        if (index1 == index2) return true;
+        int q1 = phys(index1);
+        Node n1 = nodeAt(q1);
+        int off1 = q1 - fingerStart;
+        int q2 = phys(index2);
+        Node n2 = nodeAt(q2);
+        int off2 = q2 - fingerStart;
+        byte tmp = n1.digits[off1];
+        n1.digits[off1] = n2.digits[off2];
+        n2.digits[off2] = tmp;
+        invalidate();
+        return true;
+    }
+
+
+    @Override
+    public void sortAscending() {
+        if (size <= 1) return;
+        // Сортування підрахунком: цифр усього кілька значень
+        writeSorted(digitHistogram(), true);
+    }
+
+    @Override
+    public void sortDescending() {
+        if (size <= 1) return;
+        writeSorted(digitHistogram(), false);
+    }
+
+
+    /**
+     * Повертає кількість входжень кожної цифри у число.
+     *
+     * @return масив, елемент якого з індексом d - кількість цифр d.
+     */
+    public int[] digitHistogram() {
+        int[] counts = new int[MAX_BASE];
+        Node cur = head;
+        for (int left = size; left > 0; cur = cur.next) {
+            // блоки обходимо цілком - порядок цифр для підрахунку неважливий
+            for (int i = 0; i < cur.count; i++) {
+                counts[cur.digits[i]]++;
+            }
+            left -= cur.count;
+        }
+        return counts;
+    }
+
+
+    @Override
+    public void shiftLeft() {
+        if (size <= 1) return;
+        modCount++;
+        invalidate();
+        // достатньо зсунути позицію першої цифри
+        if (++headOff == head.count) {
+            headOff = 0;
+            advanceHead();
+        }
+    }
+
+
+    @Override
+    public void shiftRight() {
+        if (size <= 1) return;
+        modCount++;
+        invalidate();
+        if (headOff == 0) {
+            retreatHead();
+            headOff = head.count;
+        }
+        headOff--;
+    }
+
+    // Допоміжні методи
+
+    /**
+     * Заголовок двійкового формату: сигнатура (4 байти), версія, основа,
+     * прапорці (біт 0 - знак), резерв, кількість цифр (8 байтів), CRC32
+     * заголовка без останнього поля і упакованих цифр
+     */
+    private static ByteBuffer binaryHeader(int base, boolean negative, long count, int crc) {
+        ByteBuffer h = ByteBuffer.allocate(BINARY_HEADER);
+        h.putInt(BINARY_MAGIC).put(BINARY_VERSION).put((byte) base).put((byte) (negative ? 1 : 0)).put((byte) 0);
+        h.putLong(count).putInt(crc);
+        h.flip();
+        return h;
+    }
+
+    /**
+     * Кількість бітів на цифру: ceil(log2(base))
+     */
+    private static int bitsPerDigit(int base) {
+        return 32 - Integer.numberOfLeadingZeros(base - 1);
+    }
+
+    private static void writeChunk(FileChannel ch, ByteBuffer out, CRC32 crc) throws IOException {
+        out.flip();
+        crc.update(out.array(), 0, out.limit());
+        while (out.hasRemaining()) ch.write(out);
+        out.clear();
+    }
+
+    /**
+     * Читає з каналу, доки буфер не заповниться або не скінчиться файл
+     *
+     * @return кількість прочитаних байтів.
+     */
+    private static int readFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) break;
+        }
+        return buf.position();
+    }
+
+    /**
+     * Дописує в кінець число, задане лімбами arith (молодші першими), без
+     * ведучих нулів; цифри розгортаються по одному лімбу
+     */
+    private void appendLimbs(int[] limbs, DigitArithmetic arith) {
+        byte[] chunk = new byte[arith.limbDigits];
+        int n = arith.length(limbs);
+        for (int i = n - 1; i >= 0; i--) {
+            int v = limbs[i];
+            for (int j = chunk.length - 1; j >= 0; j--) {
+                chunk[j] = (byte) (v % arith.base);
+                v /= arith.base;
+            }
+            int from = 0;
+            if (i == n - 1) {
+                while (chunk[from] == 0) from++;
+            }
+            appendDigits(chunk, from, chunk.length - from);
+        }
+    }
+
+    /**
+     * Скидає закешовані похідні значення після зміни цифр
+     */
+    private void invalidate() {
+        cachedDecimal = null;
+        cachedConverted = null;
+    }
+
+    private static void checkDigit(Byte e, int base) {
+        if (e == null) throw new NullPointerException("element is null");
+        checkDigit(toUnsigned(e), base);
+    }
+
+    private static void checkDigit(int val, int base) {
+        if (val < 0 || val >= base) {
+            throw new IllegalArgumentException("Digit out of range for base (" + base + "): " + val);
+        }
+    }
+
+    private static int toUnsigned(Byte b) {
+        // Перетворюємо signed byte у 0..255
+        return b.byteValue() & 0xFF;
+    }
+
+    /**
+     * Перетворює індекс цифри у фізичну позицію (відлік від початку блоку head)
+     */
+    private int phys(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int q = headOff + index;
+        return (q >= size) ? q - size : q;
+    }
+
+    /**
+     * Повертає вузол, що містить фізичну позицію q, і запам'ятовує його разом
+     * з фізичною позицією його першої цифри (fingerStart) як палець.
+     * Обхід іде від найближчої з точок: head, останній блок, палець.
+     * Далекі позиції шукаються через індекс блоків.
+     */
+    private Node nodeAt(int q) {
+        if (head == null) throw new IndexOutOfBoundsException("Empty list");
+        Node cur = head;
+        int start = 0;
+        int dist = q;
+        Node tail = head.prev;
+        int tailStart = size - tail.count;
+        if (Math.abs(q - tailStart) < dist) {
+            cur = tail;
+            start = tailStart;
+            dist = Math.abs(q - tailStart);
+        }
+        if (finger != null && Math.abs(q - fingerStart) < dist) {
+            cur = finger;
+            start = fingerStart;
+            dist = Math.abs(q - fingerStart);
+        }
+        if (dist > SKIP_INDEX_DISTANCE) {
+            return indexedNodeAt(q);
+        }
+        while (q < start) {
+            cur = cur.prev;
+            start -= cur.count;
+        }
+        while (start + cur.count <= q) {
+            start += cur.count;
+            cur = cur.next;
+        }
+        finger = cur;
+        fingerStart = start;
+        return cur;
+    }
+
+    /**
+     * Пошук блоку двійковим пошуком по індексу блоків
+     */
+    private Node indexedNodeAt(int q) {
+        if (skipNodes == null) buildSkipIndex();
+        int r = q + skipShift;
+        if (r >= size) r -= size;
+        int lo = 0;
+        int hi = skipNodes.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (skipStarts[mid] <= r) lo = mid;
+            else hi = mid - 1;
+        }
+        int start = skipStarts[lo] - skipShift;
+        if (start < 0) start += size;
+        finger = skipNodes[lo];
+        fingerStart = start;
+        return finger;
+    }
+
+    private void buildSkipIndex() {
+        int blocks = 0;
+        Node cur = head;
+        do {
+            blocks++;
+            cur = cur.next;
+        } while (cur != head);
+        skipNodes = new Node[blocks];
+        skipStarts = new int[blocks];
+        int start = 0;
+        for (int i = 0; i < blocks; i++) {
+            skipNodes[i] = cur;
+            skipStarts[i] = start;
+            start += cur.count;
+            cur = cur.next;
+        }
+        skipShift = 0;
+    }
+
+    /**
+     * Вставляє цифру без перевірки діапазону так, щоб вона отримала індекс index
+     */
+    private void insertDigit(int index, byte d) {
+        if (head == null) {
+            Node n = new Node();
+            n.next = n.prev = n;
+            n.digits[0] = d;
+            n.count = 1;
+            head = n;
+            headOff = 0;
+            size = 1;
+            modCount++;
+            invalidate();
+            return;
+        }
+        int q = headOff + index;
+        boolean beforeHead = q > size;
+        if (beforeHead) {
+            // вставка у кінець числа, що лежить у head[0..headOff)
+            q -= size;
+        }
+        if (q == size) {
+            Node n = head.prev;
+            finger = n;
+            fingerStart = size - n.count;
+            insertAt(n, n.count, d, beforeHead);
+        } else {
+            Node n = nodeAt(q);
+            insertAt(n, q - fingerStart, d, beforeHead);
+        }
+    }
+
+    /**
+     * Вшиває кільце src (починаючи з його першої цифри) перед цифрою з
+     * індексом index. src стає порожнім.
+     */
+    private void spliceRing(int index, NumberListImpl src) {
+        if (src.size == 0) return;
+        // розрізаємо src перед його першою цифрою
+        Node first = src.head;
+        if (src.headOff > 0) {
+            Node b = new Node();
+            b.count = first.count - src.headOff;
+            System.arraycopy(first.digits, src.headOff, b.digits, 0, b.count);
+            first.count = src.headOff;
+            linkAfter(first, b);
+            first = b;
+        }
+        Node last = first.prev;
+        int count = src.size;
+        src.clear();
+
+        modCount++;
+        invalidate();
+        if (head == null) {
+            head = first;
+            headOff = 0;
+            size = count;
+            return;
+        }
+        // розрізаємо це кільце у місці вставки: n = [0..off), m = [off..)
+        Node n;
+        int off;
+        if (index == size) {
+            n = head;
+            off = headOff;
+        } else {
+            int q = phys(index);
+            n = nodeAt(q);
+            off = q - fingerStart;
+        }
+        // палець та індекс блоків (його міг перебудувати nodeAt) застаріли
+        finger = null;
+        skipNodes = null;
+        skipStarts = null;
+        Node m = n;
+        if (off > 0) {
+            m = new Node();
+            m.count = n.count - off;
+            System.arraycopy(n.digits, off, m.digits, 0, m.count);
+            n.count = off;
+            linkAfter(n, m);
+            if (n == head && headOff >= off) {
+                head = m;
+                headOff -= off;
+            }
+        }
+        // вставляємо ланцюжок first..last перед m
+        Node p = m.prev;
+        p.next = first;
+        first.prev = p;
+        last.next = m;
+        m.prev = last;
+        if (index == 0) {
+            head = first;
+            headOff = 0;
+        }
+        size += count;
+    }
+
+    /**
+     * Копіює цифри іншого списку у новий список цілими шматками блоків
+     */
+    private static NumberListImpl copyOf(NumberListImpl src) {
+        NumberListImpl res = new NumberListImpl();
+        res.base = src.base;
+        Node cur = src.head;
+        int off = src.headOff;
+        int left = src.size;
+        while (left > 0) {
+            int len = Math.min(cur.count - off, left);
+            res.appendDigits(cur.digits, off, len);
+            left -= len;
+            cur = cur.next;
+            off = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Збирає цифри довільної колекції у новий список, перевіряючи кожну
+     */
+    private static NumberListImpl collect(Collection<? extends Byte> c, int base) {
+        NumberListImpl res = new NumberListImpl();
+        res.base = base;
+        byte[] buf = new byte[BLOCK_SIZE];
+        int k = 0;
+        for (Byte b : c) {
+            checkDigit(b, base);
+            buf[k++] = b;
+            if (k == BLOCK_SIZE) {
+                res.appendDigits(buf, 0, k);
+                k = 0;
+            }
+        }
+        res.appendDigits(buf, 0, k);
+        return res;
     }
 
-
-    @Override
-    public void add(int index, Byte element) {
-        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
-        checkDigit(element);
-        if (index == size) {
-            add(element);
-            return;
+    /**
+     * Дописує цифри в кінець списку, заповнюючи блоки повністю.
+     * Лише для списків, що будуються з нуля (headOff == 0).
+     */
+    private void appendDigits(byte[] src, int from, int len) {
+        if (len == 0) return;
+        if (head == null) {
+            Node n = new Node();
+            n.next = n.prev = n;
+            head = n;
         }
-        if (index == 0) {
-            if (head == null) {
-                Node n = new Node(element);
-                n.next = n.prev = n;
-                head = n;
+        Node tail = head.prev;
+        while (len > 0) {
+            if (tail.count == BLOCK_SIZE) {
+                Node n = new Node();
+                linkAfter(tail, n);
+                tail = n;
+            }
+            int k = Math.min(BLOCK_SIZE - tail.count, len);
+            System.arraycopy(src, from, tail.digits, tail.count, k);
+            tail.count += k;
+            size += k;
+            from += k;
+            len -= k;
+        }
+        modCount++;
+        invalidate();
+    }
+
+    /**
+     * Вставляє цифру у блок n перед позицією off (off == n.count - у кінець блоку).
+     * beforeHead - цифра лягає перед першою цифрою числа у блоці head, тобто
+     * стає останньою. Повертає блок, у якому опинилася цифра: n або новий блок
+     * після n, де вона лежить на позиції off - n.count.
+     */
+    private Node insertAt(Node n, int off, byte d, boolean beforeHead) {
+        // палець лишається коректним, лише якщо вставка відбувається у ньому
+        if (finger != n) finger = null;
+        if (n.count == BLOCK_SIZE) {
+            Node nn = new Node();
+            linkAfter(n, nn);
+            if (off == BLOCK_SIZE) {
+                // дописування в кінець повного блоку - просто новий блок
+                if (finger != null) fingerStart += BLOCK_SIZE;
+                n = nn;
+                off = 0;
             } else {
-                Node tail = head.prev;
-                Node n = new Node(element);
-                n.next = head;
-                n.prev = tail;
-                tail.next = n;
-                head.prev = n;
-                head = n;
-            }
-            size++;
-            return;
+                // розщеплюємо повний блок навпіл
+                int half = BLOCK_SIZE / 2;
+                System.arraycopy(n.digits, half, nn.digits, 0, BLOCK_SIZE - half);
+                nn.count = BLOCK_SIZE - half;
+                n.count = half;
+                if (off > half) {
+                    if (finger != null) fingerStart += half;
+                    n = nn;
+                    off -= half;
+                }
+            }
+            if (finger != null) finger = n;
         }
-        Node succ = nodeAt(index);
-        Node pred = succ.prev;
-        Node n = new Node(element);
-        n.next = succ;
-        n.prev = pred;
-        pred.next = n;
-        succ.prev = n;
+        System.arraycopy(n.digits, off, n.digits, off + 1, n.count - off);
+        n.digits[off] = d;
+        n.count++;
         size++;
+        modCount++;
+        invalidate();
+        skipNodes = null;
+        skipStarts = null;
+        if (beforeHead) headOff++;
+        normalizeHead();
+        return n;
     }
 
+    /**
+     * Видаляє цифру з позиції off блоку n і повертає її
+     */
+    private byte removeAt(Node n, int off) {
+        byte val = n.digits[off];
+        // цифри head[0..headOff) - кінець числа, їх видалення зсуває першу цифру
+        boolean beforeHead = n == head && off < headOff;
+        System.arraycopy(n.digits, off + 1, n.digits, off, n.count - off - 1);
+        n.count--;
+        size--;
+        modCount++;
+        invalidate();
+        skipNodes = null;
+        skipStarts = null;
+        if (finger != n) finger = null;
+        if (beforeHead) headOff--;
+        if (size == 0) {
+            clear();
+            return val;
+        }
+        if (n.count == 0) {
+            if (n == head) {
+                head = n.next;
+                headOff = 0;
+            }
+            unlinkNode(n);
+            finger = null;
+        } else if (n.count < BLOCK_SIZE / 2 && n.next != head && n.next != n
+                && n.count + n.next.count <= BLOCK_SIZE) {
+            // зливаємо напівпорожній блок з наступним
+            Node nx = n.next;
+            System.arraycopy(nx.digits, 0, n.digits, n.count, nx.count);
+            n.count += nx.count;
+            unlinkNode(nx);
+        }
+        normalizeHead();
+        return val;
+    }
 
+    /**
+     * Будує маску належності: mask[d] == true, якщо цифра d є у колекції
+     */
+    private static boolean[] digitMask(Collection<?> c) {
+        boolean[] mask = new boolean[256];
+        for (Object o : c) {
+            if (o instanceof Byte) mask[((Byte) o) & 0xFF] = true;
+        }
+        return mask;
+    }
 
-    @Override
-    public Byte remove(int index) {
-        Node n = nodeAt(index);
-        Byte val = n.value;
-        if (n == head) {
-            if (size == 1) {
-                head = null;
+    /**
+     * Видаляє за один прохід усі цифри d, для яких mask[d] == matching.
+     * Блоки ущільнюються на місці, порожні викидаються з кільця, сусідні
+     * малі блоки зливаються; size і head змінюються один раз наприкінці.
+     */
+    private boolean removeMatching(boolean[] mask, boolean matching) {
+        if (size == 0) return false;
+        int kept = 0;
+        int removedBeforeHead = 0;
+        boolean headKept = false;
+        Node first = null;
+        Node last = null;
+        Node cur = head;
+        do {
+            Node nx = cur.next;
+            int w = 0;
+            for (int i = 0; i < cur.count; i++) {
+                byte d = cur.digits[i];
+                if (mask[d & 0xFF] == matching) {
+                    if (cur == head && i < headOff) removedBeforeHead++;
+                } else {
+                    cur.digits[w++] = d;
+                }
+            }
+            boolean shrunk = w < cur.count;
+            cur.count = w;
+            kept += w;
+            if (w == 0) {
+                cur.next = cur.prev = null;
+            } else if (shrunk && last != null && last.count + w <= BLOCK_SIZE) {
+                // дописуємо залишок блоку у попередній
+                System.arraycopy(cur.digits, 0, last.digits, last.count, w);
+                last.count += w;
+                cur.next = cur.prev = null;
             } else {
-                head = head.next;
+                if (last == null) {
+                    first = cur;
+                } else {
+                    last.next = cur;
+                    cur.prev = last;
+                }
+                last = cur;
+                if (cur == head) headKept = true;
             }
+            cur = nx;
+        } while (cur != head);
+
+        if (kept == size) {
+            // нічого не видалено - блоки ті самі
+            last.next = first;
+            first.prev = last;
+            return false;
         }
-        unlinkNode(n);
-        return val;
+        if (kept == 0) {
+            clear();
+            return true;
+        }
+        last.next = first;
+        first.prev = last;
+        if (headKept) {
+            headOff -= removedBeforeHead;
+        } else {
+            head = first;
+            headOff = 0;
+        }
+        size = kept;
+        modCount++;
+        invalidate();
+        finger = null;
+        skipNodes = null;
+        skipStarts = null;
+        normalizeHead();
+        return true;
     }
 
-
-    @Override
-    public int indexOf(Object o) {
-        if (o == null) return -1;
+    /**
+     * Переписує цифри кільця за один прохід відповідно до гістограми
+     */
+    private void writeSorted(int[] counts, boolean ascending) {
+        invalidate();
+        int d = ascending ? 0 : MAX_BASE - 1;
+        int step = ascending ? 1 : -1;
         Node cur = head;
+        int off = headOff;
         for (int i = 0; i < size; i++) {
-            if (cur.value.equals(o)) return i;
-            cur = cur.next;
+            while (counts[d] == 0) d += step;
+            counts[d]--;
+            cur.digits[off] = (byte) d;
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
         }
-        return -1;
     }
 
-
-    @Override
-    public int lastIndexOf(Object o) {
-        if (o == null) return -1;
-        Node cur = (head == null) ? null : head.prev;
-        for (int i = size - 1; i >= 0; i--) {
-            if (cur.value.equals(o)) return i;
-            cur = cur.prev;
+    /**
+     * Гарантує, що headOff вказує всередину блоку head
+     */
+    private void normalizeHead() {
+        while (head != null && headOff >= head.count) {
+            headOff -= head.count;
+            advanceHead();
         }
-        return -1;
     }
 
-
-    @Override
-    public ListIterator<Byte> listIterator() {
-        // TODO: Наразі повертаємо базовий ListIterator через listIterator(0)
-        return listIterator(0);
+    /**
+     * Робить head наступний блок; фізичні позиції всіх блоків зменшуються
+     * на розмір старого head, тож палець та індекс блоків коригуються
+     */
+    private void advanceHead() {
+        int c = head.count;
+        head = head.next;
+        fingerStart -= c;
+        if (fingerStart < 0) fingerStart += size;
+        skipShift += c;
+        if (skipShift >= size) skipShift -= size;
     }
 
+    /**
+     * Робить head попередній блок
+     */
+    private void retreatHead() {
+        head = head.prev;
+        int c = head.count;
+        fingerStart += c;
+        if (fingerStart >= size) fingerStart -= size;
+        skipShift -= c;
+        if (skipShift < 0) skipShift += size;
+    }
 
-    @Override
-    public ListIterator<Byte> listIterator(int index) {
-        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
-        return new ListIterator<Byte>() {
-            private int cursor = index;
-            private Node lastReturned = null;
+    /**
+     * Додає блок n після блоку prev
+     */
+    private static void linkAfter(Node prev, Node n) {
+        Node nx = prev.next;
+        n.prev = prev;
+        n.next = nx;
+        prev.next = n;
+        nx.prev = n;
+    }
 
-            private Node nodeAtCursor() {
-                if (cursor == size) return null;
-                return nodeAt(cursor);
-            }
+    /**
+     * Вилучає порожній блок з кільця
+     */
+    private void unlinkNode(Node n) {
+        Node p = n.prev;
+        Node nx = n.next;
+        p.next = nx;
+        nx.prev = p;
+        // очистка
+        n.next = n.prev = null;
+    }
 
-            @Override
-            public boolean hasNext() {
-                return cursor < size;
-            }
+    private static boolean isPowerOfTwo(int b) {
+        return (b & (b - 1)) == 0;
+    }
 
-            @Override
-            public Byte next() {
-                if (!hasNext()) throw new NoSuchElementException();
-                lastReturned = nodeAt(cursor);
-                cursor++;
-                return lastReturned.value;
+    /**
+     * Перегруповує біти цифр для іншої основи-степеня двійки: кільце
+     * проходиться один раз від молодших розрядів, біти накопичуються у long,
+     * і кожні targetBits бітів дають одну цифру результату (масив
+     * заповнюється з кінця). Ведучі нулі відкидаються.
+     */
+    private byte[] regroupBits(int target) {
+        int srcBits = Integer.numberOfTrailingZeros(base);
+        int dstBits = Integer.numberOfTrailingZeros(target);
+        int mask = target - 1;
+        byte[] out = new byte[(int) (((long) size * srcBits + dstBits - 1) / dstBits)];
+        int pos = out.length;
+        DigitCursor c = new DigitCursor(this, true);
+        long acc = 0;
+        int bits = 0;
+        for (int i = 0; i < size; i++) {
+            acc |= (long) c.prev() << bits;
+            bits += srcBits;
+            while (bits >= dstBits) {
+                out[--pos] = (byte) (acc & mask);
+                acc >>>= dstBits;
+                bits -= dstBits;
             }
+        }
+        if (bits > 0) out[--pos] = (byte) acc;
+        int k = pos;
+        while (k < out.length && out[k] == 0) k++;
+        return Arrays.copyOfRange(out, k, out.length);
+    }
 
-            @Override
-            public boolean hasPrevious() {
-                return cursor > 0;
-            }
+    /**
+     * Це число в основній системі числення (без копіювання, якщо воно вже в ній)
+     */
+    private NumberListImpl inPrimary() {
+        return base == PRIMARY_BASE ? this : toBase(PRIMARY_BASE);
+    }
 
-            @Override
-            public Byte previous() {
-                if (!hasPrevious()) throw new NoSuchElementException();
-                lastReturned = nodeAt(cursor - 1);
-                cursor--;
-                return lastReturned.value;
-            }
+    /**
+     * Перевіряє аргумент арифметичної операції і повертає його як NumberListImpl
+     * в основній системі числення
+     */
+    private static NumberListImpl operand(NumberList arg) {
+        if (arg == null) throw new IllegalArgumentException("Argument is null");
+        return asImpl(arg).inPrimary();
+    }
 
-            @Override
-            public int nextIndex() {
-                return cursor;
-            }
+    /**
+     * Операнд для змін на місці: у системі числення цього списку і не сам цей список
+     */
+    private NumberListImpl accumuland(NumberList arg) {
+        if (arg == null) throw new IllegalArgumentException("Argument is null");
+        NumberListImpl b = asImpl(arg);
+        if (b.base != base) return b.toBase(base);
+        if (b != this) return b;
+        NumberListImpl copy = copyOf(this);
+        copy.negative = negative;
+        return copy;
+    }
 
-            @Override
-            public int previousIndex() {
-                return cursor - 1;
+    /**
+     * this += (bNegative ? -|b| : |b|)
+     */
+    private void accumulate(NumberListImpl b, boolean bNegative) {
+        if (isNegative() == bNegative || size == 0) {
+            addMagnitudeInPlace(b);
+            negative = bNegative;
+        } else {
+            boolean wasNegative = isNegative();
+            int la = significantLength();
+            int lb = b.significantLength();
+            int cmp = compareMagnitudes(this, la, b, lb);
+            if (cmp == 0) {
+                clear();
+                return;
             }
+            subtractMagnitudeInPlace(b, lb, cmp < 0);
+            negative = (cmp < 0) != wasNegative;
+        }
+    }
 
-            @Override
-            public void remove() {
-                if (lastReturned == null) throw new IllegalStateException();
-                int idx = indexOf(lastReturned.value);
-                NumberListImpl.this.remove(idx);
-                if (idx < cursor) cursor--;
-                lastReturned = null;
+    /**
+     * |this| += |b|: молодші цифри переписуються з кінця кільця; перенесення
+     * зупиняється, щойно стає нульовим, а цифри, яких бракує, додаються спереду
+     */
+    private void addMagnitudeInPlace(NumberListImpl b) {
+        invalidate();
+        int lb = b.significantLength();
+        if (lb == 0) {
+            dropLeadingZeros();
+            return;
+        }
+        int common = Math.min(size, lb);
+        int radix = base;
+        int carry = 0;
+        int i = 0;
+        // обидва кільця з кінця, блоками; курсори - локальні змінні
+        Node m = b.headOff == 0 ? b.head.prev : b.head;
+        int mo = (b.headOff == 0 ? m.count : b.headOff) - 1;
+        if (common > 0) {
+            Node n = headOff == 0 ? head.prev : head;
+            int off = (headOff == 0 ? n.count : headOff) - 1;
+            while (i < common) {
+                int k = Math.min(Math.min(off, mo) + 1, common - i);
+                byte[] x = n.digits;
+                byte[] y = m.digits;
+                for (int end = i + k; i < end; i++, off--, mo--) {
+                    int d = x[off] + y[mo] + carry;
+                    carry = d >= radix ? 1 : 0;
+                    x[off] = (byte) (d - carry * radix);
+                }
+                if (off < 0) {
+                    n = n.prev;
+                    off = n.count - 1;
+                }
+                if (mo < 0) {
+                    m = m.prev;
+                    mo = m.count - 1;
+                }
             }
-
-            @Override
-            public void set(Byte e) {
-                if (lastReturned == null) throw new IllegalStateException();
-                checkDigit(e);
-                lastReturned.value = e;
+            for (; carry != 0 && i < size; i++) {
+                int d = n.digits[off] + carry;
+                carry = d >= radix ? 1 : 0;
+                n.digits[off] = (byte) (d - carry * radix);
+                if (--off < 0) {
+                    n = n.prev;
+                    off = n.count - 1;
+                }
             }
-
-            @Override
-            public void add(Byte e) {
-                checkDigit(e);
-                NumberListImpl.this.add(cursor, e);
-                cursor++;
-                lastReturned = null;
+        }
+        if (lb > i || carry != 0) {
+            // старші цифри b, яких немає у цьому числі, з перенесенням
+            byte[] high = new byte[Math.max(lb - i, 0) + 1];
+            for (int k = high.length - 1; k > 0; k--) {
+                int d = m.digits[mo] + carry;
+                if (--mo < 0) {
+                    m = m.prev;
+                    mo = m.count - 1;
+                }
+                carry = d >= radix ? 1 : 0;
+                high[k] = (byte) (d - carry * radix);
             }
-        };
-    }
-
-
-    @Override
-    public List<Byte> subList(int fromIndex, int toIndex) {
-        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
-            throw new IndexOutOfBoundsException();
+            high[0] = (byte) carry;
+            prependDigits(high, carry == 0 ? 1 : 0);
         }
-        // Створюємо новий список того ж типу
-        NumberListImpl sub = new NumberListImpl();
+        dropLeadingZeros();
+    }
 
-        // Якщо діапазон пустий, повертаємо пустий список
-        if (fromIndex == toIndex) {
-            return sub;
+    /**
+     * |this| - |b|, або |b| - |this|, якщо reverse (|this| < |b|); зайві
+     * ведучі нулі видаляються
+     */
+    private void subtractMagnitudeInPlace(NumberListImpl b, int lb, boolean reverse) {
+        invalidate();
+        DigitCursor c = new DigitCursor(this, true);
+        DigitCursor cb = new DigitCursor(b, true);
+        int borrow = 0;
+        int i = 0;
+        int limit = reverse ? Math.min(size, lb) : size;
+        for (; i < limit && (i < lb || borrow != 0); i++) {
+            int x = c.peek();
+            int y = i < lb ? cb.prev() : 0;
+            int d = reverse ? y - x - borrow : x - y - borrow;
+            borrow = d < 0 ? 1 : 0;
+            c.putPrev(d + borrow * base);
         }
-
-        // Знаходимо перший елемент
-        Node cur = nodeAt(fromIndex);
-
-        // Копіюємо елементи в новий список
-        for (int i = fromIndex; i < toIndex; i++) {
-            sub.add(cur.value);
-            cur = cur.next;
+        if (reverse) {
+            // решта цифр цього числа - ведучі нулі; вони стають цифрами b - borrow
+            for (; i < size; i++) {
+                int d = (i < lb ? cb.prev() : 0) - borrow;
+                borrow = d < 0 ? 1 : 0;
+                c.putPrev(d + borrow * base);
+            }
+            if (lb > i) {
+                byte[] high = new byte[lb - i];
+                for (int k = high.length - 1; k >= 0; k--) {
+                    int d = cb.prev() - borrow;
+                    borrow = d < 0 ? 1 : 0;
+                    high[k] = (byte) (d + borrow * base);
+                }
+                prependDigits(high, 0);
+            }
         }
-        return sub;
+        dropLeadingZeros();
     }
 
-
-    @Override
-    public boolean swap(int index1, int index2) {
-        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) return false;
-        if (index1 == index2) return true;
-        Node n1 = nodeAt(index1);
-        Node n2 = nodeAt(index2);
-        Byte tmp = n1.value;
-        n1.value = n2.value;
-        n2.value = tmp;
-        return true;
+    /**
+     * Видаляє ведучі нулі зі старшого кінця, як у результатах add()/subtract()
+     */
+    private void dropLeadingZeros() {
+        while (size > 0 && getDigit(0) == 0) remove(0);
     }
 
+    /**
+     * Вставляє digits[from..) перед першою цифрою
+     */
+    private void prependDigits(byte[] digits, int from) {
+        if (from == digits.length) return;
+        NumberListImpl high = new NumberListImpl();
+        high.appendDigits(digits, from, digits.length - from);
+        spliceRing(0, high);
+    }
 
-    @Override
-    public void sortAscending() {
-        if (size <= 1) return;
-
-        // Сортування бульбашкою (міняємо значення value у вузлах)
-        for (int i = 0; i < size; i++) {
-            Node current = head;
-            for (int j = 0; j < size - 1 - i; j++) {
-                // Порівнюємо як беззнакові числа (бо у нас Byte)
-                int val1 = toUnsigned(current.value);
-                int val2 = toUnsigned(current.next.value);
+    private int[][] divideLimbs(NumberListImpl b) {
+        return DigitArithmetic.PRIMARY.divideAndRemainder(DigitArithmetic.PRIMARY.toLimbs(toByteArray()),
+                DigitArithmetic.PRIMARY.toLimbs(b.toByteArray()));
+    }
 
-                if (val1 > val2) {
-                    // Міняємо місцями значення
-                    Byte tmp = current.value;
-                    current.value = current.next.value;
-                    current.next.value = tmp;
-                }
-                current = current.next;
-            }
+    /**
+     * AND / OR модулів. Якщо основа - степінь двійки, кожна цифра - це група
+     * бітів: цифри обох чисел пакуються у long (вирівняні від молодших розрядів),
+     * і операція виконується над цілими словами.
+     */
+    private NumberListImpl bitwise(NumberListImpl b, boolean and) {
+        if (isNegative() || b.isNegative()) {
+            throw new ArithmeticException("Bitwise operations are defined for non-negative numbers only");
+        }
+        if (DigitArithmetic.PRIMARY.digitBits == 0) {
+            // для інших основ бітів у цифрах немає - через двійкове представлення
+            BigInteger x = toBigInteger(PRIMARY_BASE);
+            BigInteger y = b.toBigInteger(PRIMARY_BASE);
+            return fromBigInteger(and ? x.and(y) : x.or(y), PRIMARY_BASE);
         }
+        long[] x = DigitArithmetic.PRIMARY.packBits(toByteArray());
+        long[] y = DigitArithmetic.PRIMARY.packBits(b.toByteArray());
+        long[] words = and ? DigitArithmetic.PRIMARY.and(x, y) : DigitArithmetic.PRIMARY.or(x, y);
+        int len = and ? Math.min(size, b.size) : Math.max(size, b.size);
+        return fromDigits(DigitArithmetic.PRIMARY.unpackBits(words, len));
     }
 
-    @Override
-    public void sortDescending() {
-        if (size <= 1) return;
-
-        for (int i = 0; i < size; i++) {
-            Node current = head;
-            for (int j = 0; j < size - 1 - i; j++) {
-                int val1 = toUnsigned(current.value);
-                int val2 = toUnsigned(current.next.value);
-
-                // Знак < для спадання
-                if (val1 < val2) {
-                    Byte tmp = current.value;
-                    current.value = current.next.value;
-                    current.next.value = tmp;
-                }
-                current = current.next;
-            }
+    /**
+     * Повертає аргумент як NumberListImpl; інші реалізації копіюються
+     */
+    static NumberListImpl asImpl(NumberList arg) {
+        if (arg instanceof NumberListImpl) return (NumberListImpl) arg;
+        // цифри PackedNumberList можуть бути не в основній системі
+        if (arg instanceof PackedNumberList) return ((PackedNumberList) arg).toNumberList();
+        if (arg instanceof PrimitiveNumberList) {
+            return new NumberListImpl(((PrimitiveNumberList) arg).toByteArray());
         }
+        return collect(arg, PRIMARY_BASE);
     }
 
-
-    @Override
-    public void shiftLeft() {
-        if (size <= 1) return;
-        head = head.next;
+    /**
+     * a - b з урахуванням знаків операндів
+     */
+    private static NumberListImpl subtract(NumberListImpl a, NumberListImpl b) {
+        if (a.isNegative() != b.isNegative()) {
+            // a - (-b) = a + b, (-a) - b = -(a + b)
+            NumberListImpl res = addMagnitudes(a, b);
+            res.negative = a.isNegative();
+            return res;
+        }
+        // обидва одного знаку: різниця модулів, знак міняється, якщо |a| < |b|
+        NumberListImpl res = subtractMagnitudes(a, b);
+        if (a.isNegative()) res.negative = !res.negative;
+        return res;
     }
 
-
-    @Override
-    public void shiftRight() {
-        if (size <= 1) return;
-        head = head.prev;
+    /**
+     * Кількість цифр без ведучих нулів
+     */
+    private int significantLength() {
+        DigitCursor c = new DigitCursor(this, false);
+        int zeros = 0;
+        while (zeros < size && c.next() == 0) zeros++;
+        return size - zeros;
     }
 
-    // Допоміжні методи
-    private void checkDigit(Byte e) {
-        if (e == null) throw new NullPointerException("element is null");
-        int val = toUnsigned(e);
-        if (val < 0 || val >= PRIMARY_BASE) {
-            throw new IllegalArgumentException("Digit out of range for primary base (" + PRIMARY_BASE + "): " + val);
+    /**
+     * Порівнює модулі чисел з відомою кількістю значущих цифр
+     */
+    private static int compareMagnitudes(NumberListImpl a, int la, NumberListImpl b, int lb) {
+        if (la != lb) return la < lb ? -1 : 1;
+        DigitCursor ca = new DigitCursor(a, false);
+        DigitCursor cb = new DigitCursor(b, false);
+        for (int i = a.size - la; i > 0; i--) ca.next();
+        for (int i = b.size - lb; i > 0; i--) cb.next();
+        for (int i = 0; i < la; i++) {
+            int da = ca.next();
+            int db = cb.next();
+            if (da != db) return da < db ? -1 : 1;
         }
-    }
-
-    private static int toUnsigned(Byte b) {
-        // Перетворюємо signed byte у 0..255
-        return b.byteValue() & 0xFF;
+        return 0;
     }
 
     /**
-     * Повертає вузол за індексом. Якщо список порожній або індекс вне діапазону - викидає IndexOutOfBoundsException
+     * |a| + |b|: обидва кільця проходяться з кінця, результат пишеться з кінця масиву
      */
-    private Node nodeAt(int index) {
-        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
-        if (head == null) throw new IndexOutOfBoundsException("Empty list");
-        if (index <= (size >> 1)) {
-            Node cur = head;
-            for (int i = 0; i < index; i++) cur = cur.next;
-            return cur;
-        } else {
-            Node cur = head.prev;
-            for (int i = size - 1; i > index; i--) cur = cur.prev;
-            return cur;
+    private static NumberListImpl addMagnitudes(NumberListImpl a, NumberListImpl b) {
+        int la = a.significantLength();
+        int lb = b.significantLength();
+        if (la < lb) {
+            NumberListImpl t = a; a = b; b = t;
+            int tl = la; la = lb; lb = tl;
         }
+        byte[] out = new byte[la + 1];
+        DigitCursor ca = new DigitCursor(a, true);
+        DigitCursor cb = new DigitCursor(b, true);
+        int carry = 0;
+        int pos = out.length;
+        for (int i = 0; i < la; i++) {
+            int d = ca.prev() + (i < lb ? cb.prev() : 0) + carry;
+            carry = d >= PRIMARY_BASE ? 1 : 0;
+            out[--pos] = (byte) (d - carry * PRIMARY_BASE);
+        }
+        out[0] = (byte) carry;
+        return fromDigits(out);
     }
 
     /**
-     * Розв'язує зв'язки і зменшує розмір
+     * |a| - |b| за один прохід з позиками; якщо |a| < |b|, від більшого
+     * віднімається менше, а результат позначається від'ємним
      */
-    private void unlinkNode(Node n) {
-        if (size == 0 || n == null) return;
-        if (size == 1) {
-            head = null;
-            size = 0;
-            return;
+    private static NumberListImpl subtractMagnitudes(NumberListImpl a, NumberListImpl b) {
+        int la = a.significantLength();
+        int lb = b.significantLength();
+        int cmp = compareMagnitudes(a, la, b, lb);
+        if (cmp == 0) return new NumberListImpl();
+        if (cmp < 0) {
+            NumberListImpl t = a; a = b; b = t;
+            int tl = la; la = lb; lb = tl;
         }
-        Node p = n.prev;
-        Node nx = n.next;
-        p.next = nx;
-        nx.prev = p;
-        // Якщо видалений був head, змінимо head
-        if (n == head) {
-            head = nx;
+        byte[] out = new byte[la];
+        DigitCursor ca = new DigitCursor(a, true);
+        DigitCursor cb = new DigitCursor(b, true);
+        int borrow = 0;
+        for (int i = la - 1, j = 0; i >= 0; i--, j++) {
+            int d = ca.prev() - (j < lb ? cb.prev() : 0) - borrow;
+            borrow = d < 0 ? 1 : 0;
+            out[i] = (byte) (d + borrow * PRIMARY_BASE);
         }
-        // очистка
-        n.next = n.prev = null;
-        size--;
+        NumberListImpl res = fromDigits(out);
+        res.negative = cmp < 0;
+        return res;
+    }
+
+    /**
+     * Створює список з масиву цифр, відкидаючи ведучі нулі
+     */
+    private static NumberListImpl fromDigits(byte[] digits) {
+        int k = 0;
+        while (k < digits.length && digits[k] == 0) k++;
+        NumberListImpl res = new NumberListImpl();
+        res.appendDigits(digits, k, digits.length - k);
+        return res;
+    }
+
+    /**
+     * Створює число зі знаком з цифр системи base (старші першими) як є,
+     * без перевірки цифр; для інших реалізацій NumberList у цьому пакеті
+     */
+    static NumberListImpl fromDigits(byte[] digits, int base, boolean negative) {
+        NumberListImpl res = new NumberListImpl();
+        res.appendDigits(digits, 0, digits.length);
+        res.base = base;
+        res.negative = negative;
+        return res;
     }
 
     /**
@@ -809,33 +3042,15 @@ public class NumberListImpl implements NumberList {
         if (size == 0 || head == null) return BigInteger.ZERO;
         BigInteger res = BigInteger.ZERO;
         Node cur = head;
+        int off = headOff;
         for (int i = 0; i < size; i++) {
-            int digit = toUnsigned(cur.value);
-            res = res.multiply(BigInteger.valueOf(base)).add(BigInteger.valueOf(digit));
-            cur = cur.next;
-        }
-        return res;
-    }
-
-    /**
-     * Перетворює переданий NumberList у BigInteger, використовуючи задану базу
-     * Працює через ітератор NumberList
-     */
-    private static BigInteger numberListToBigInteger(NumberList list, int base) {
-        if (list == null) return BigInteger.ZERO;
-        BigInteger res = BigInteger.ZERO;
-        Iterator<?> it = list.iterator();
-        boolean has = false;
-        while (it.hasNext()) {
-            Object o = it.next();
-            if (!(o instanceof Byte)) {
-                throw new IllegalArgumentException("Expected Byte elements in NumberList");
-            }
-            has = true;
-            int digit = toUnsigned((Byte) o);
+            int digit = cur.digits[off] & 0xFF;
             res = res.multiply(BigInteger.valueOf(base)).add(BigInteger.valueOf(digit));
+            if (++off == cur.count) {
+                cur = cur.next;
+                off = 0;
+            }
         }
-        if (!has) return BigInteger.ZERO;
         return res;
     }
 
@@ -850,38 +3065,17 @@ public class NumberListImpl implements NumberList {
         if (abs.equals(BigInteger.ZERO)) {
             return res;
         }
-        java.util.ArrayList<Byte> digits = new java.util.ArrayList<>();
+        // цифр не більше, ніж бітів (для основи 2), заповнюємо масив з кінця
+        byte[] digits = new byte[abs.bitLength()];
+        int pos = digits.length;
         BigInteger bBase = BigInteger.valueOf(base);
         while (abs.compareTo(BigInteger.ZERO) > 0) {
             BigInteger[] dr = abs.divideAndRemainder(bBase);
             abs = dr[0];
-            int digit = dr[1].intValue();
-            digits.add((byte) digit);
-        }
-        // додаємо у res від старшого до молодшого, використовуючи appendNode (щоб не кидати checkDigit)
-        for (int i = digits.size() - 1; i >= 0; i--) {
-            res.appendNode(digits.get(i));
+            digits[--pos] = (byte) dr[1].intValue();
         }
+        // дописуємо без checkDigit: основа може відрізнятися від основної
+        res.appendDigits(digits, pos, digits.length - pos);
         return res;
     }
-
-    /**
-     * Додає вузол у кінець списку без перевірки діапазону цифри
-     * Використовується внутрішньо при конструюванні списку у довільній базі
-     */
-    private void appendNode(Byte b) {
-        if (head == null) {
-            Node n = new Node(b);
-            n.next = n.prev = n;
-            head = n;
-        } else {
-            Node tail = head.prev;
-            Node n = new Node(b);
-            n.prev = tail;
-            n.next = head;
-            tail.next = n;
-            head.prev = n;
-        }
-        size++;
-    }
 }
@@ -0,0 +1,579 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Реалізація <tt>NumberList</tt>, цифри якої зберігаються поза купою.<p>
+ *
+ * Цифри лежать по одній у байті в <tt>MemorySegment</tt>, виділеному з власної
+ * <tt>Arena</tt>, тому збирач сміття їх не бачить. Сегмент використовується як
+ * кільцевий буфер, тож циклічні зсуви виконуються за O(1). Пам'ять звільняється
+ * методом {@link #close()}; після цього список використовувати не можна.<p>
+ *
+ * Переведення між системами числення і арифметика виконуються тими самими
+ * засобами, що й у <tt>NumberListImpl</tt> (BaseConversion, DigitArithmetic),
+ * тож мають ту саму складність. Цифри читаються із сегмента і записуються
+ * назад шматками по SLICE, тому в купі лежать лише лімби - значення, з
+ * якими працює арифметика.
+ * Як і в <tt>NumberListImpl</tt>, від'ємний результат додаткової операції
+ * зберігає модуль у цифрах і знак окремо.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+public class OffHeapNumberList extends AbstractList<Byte> implements NumberList, AutoCloseable {
+
+    private static final long INITIAL_CAPACITY = 64;
+    // Шматок цифр, який за раз копіюється між сегментом і купою
+    private static final int SLICE = 1 << 16;
+
+    private final int base;
+    private Arena arena;
+    private MemorySegment digits;
+    private long capacity;
+    private long start = 0;   // позиція цифри з індексом 0 у сегменті
+    private int size = 0;
+    private boolean negative = false;
+
+    /**
+     * Створює порожній список у основній системі числення варіанту.
+     */
+    public OffHeapNumberList() {
+        this(NumberListImpl.PRIMARY_BASE);
+    }
+
+
+    /**
+     * Створює порожній список для цифр у заданій системі числення.
+     *
+     * @param base - основа системи числення (від 2 до 16).
+     */
+    public OffHeapNumberList(int base) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Unsupported base: " + base);
+        }
+        this.base = base;
+        allocate(INITIAL_CAPACITY);
+    }
+
+
+    /**
+     * Constructs new <tt>OffHeapNumberList</tt> by <b>decimal</b> number
+     * in string notation.
+     *
+     * @param value - number in string notation.
+     */
+    public OffHeapNumberList(String value) {
+        this();
+        byte[] val = NumberListImpl.parseDecimal(value);
+        if (val != null) load(val, false);
+    }
+
+
+    /**
+     * Constructs new <tt>OffHeapNumberList</tt> by <b>decimal</b> number
+     * from file, defined in string format.
+     *
+     * @param file - file where number is stored.
+     */
+    public OffHeapNumberList(File file) {
+        this();
+        if (file == null || !file.exists() || !file.isFile()) {
+            return;
+        }
+        try (FileReader in = new FileReader(file)) {
+            int[] val = NumberListImpl.readDecimalLine(in).finishLimbs();
+            if (val != null) load(val, DigitArithmetic.PRIMARY, false);
+        } catch (IOException ex) {
+            // при помилці зчитування лишаємо список пустим
+        }
+    }
+
+
+    /**
+     * Звільняє пам'ять, зайняту цифрами.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            digits = null;
+            size = 0;
+        }
+    }
+
+
+    /**
+     * Saves the number, stored in the list, into specified file
+     * in <b>decimal</b> scale of notation.
+     *
+     * @param file - file where number has to be stored.
+     */
+    public void saveList(File file) {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        NumberListImpl.saveDecimal(file, decimalChars());
+    }
+
+
+    /**
+     * Returns new <tt>OffHeapNumberList</tt> which represents the same number
+     * in other scale of notation, defined by personal test assignment.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @return <tt>OffHeapNumberList</tt> in other scale of notation.
+     */
+    public OffHeapNumberList changeScale() {
+        OffHeapNumberList res = new OffHeapNumberList(NumberListImpl.SECONDARY_BASE);
+        DigitArithmetic arith = res.arithmetic();
+        res.load(limbs(arith), arith, isNegative());
+        return res;
+    }
+
+
+    /**
+     * Returns new <tt>OffHeapNumberList</tt> which represents the result of
+     * additional operation, defined by personal test assignment.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @param arg - second argument of additional operation
+     *
+     * @return result of additional operation.
+     */
+    public OffHeapNumberList additionalOperation(NumberList arg) {
+        if (arg == null) throw new IllegalArgumentException("Argument is null");
+        // операція та сама, що й у NumberListImpl, але над лімбами системи
+        // числення цього списку, тож результат одразу в ній
+        DigitArithmetic arith = arithmetic();
+        int[] a = limbs(arith);
+        boolean na = isNegative();
+        int[] b;
+        boolean nb;
+        if (arg instanceof OffHeapNumberList) {
+            OffHeapNumberList o = (OffHeapNumberList) arg;
+            b = o.limbs(arith);
+            nb = o.isNegative();
+        } else {
+            NumberListImpl o = NumberListImpl.asImpl(arg).toBase(base);
+            b = arith.toLimbs(o.toByteArray());
+            nb = o.isNegative();
+        }
+        OffHeapNumberList res = new OffHeapNumberList(base);
+        switch (NumberListImpl.OPERATION_TYPE) {
+            case 0:
+                res.loadSum(a, na, b, nb, arith);
+                break;
+            case 1:
+                res.loadSum(a, na, b, !nb, arith);
+                break;
+            case 2:
+                res.load(arith.multiply(a, b), arith, na != nb);
+                break;
+            case 3:
+                res.load(arith.divideAndRemainder(a, b)[0], arith, na != nb);
+                break;
+            case 4:
+                res.load(arith.divideAndRemainder(a, b)[1], arith, na);
+                break;
+            default: {
+                // AND / OR - через цифри NumberListImpl
+                NumberListImpl x = NumberListImpl.fromDigits(arith.toDigits(a), base, na);
+                NumberListImpl y = NumberListImpl.fromDigits(arith.toDigits(b), base, nb);
+                NumberListImpl r = x.additionalOperation(y).toBase(base);
+                res.load(arith.toLimbs(r.toByteArray()), arith, r.isNegative());
+            }
+        }
+        return res;
+    }
+
+
+    /**
+     * Returns string representation of number, stored in the list
+     * in <b>decimal</b> scale of notation.
+     *
+     * @return string representation in <b>decimal</b> scale.
+     */
+    public String toDecimalString() {
+        NumberListImpl.DecimalChars src = decimalChars();
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[SLICE];
+        int n;
+        while ((n = src.read(buf)) > 0) sb.append(buf, 0, n);
+        return sb.toString();
+    }
+
+
+    /**
+     * Чи є число від'ємним (результат віднімання більшого числа з меншого).
+     * Цифри списку при цьому зберігають модуль числа.
+     *
+     * @return <tt>true</tt>, якщо число менше нуля.
+     */
+    public boolean isNegative() {
+        return negative && size > 0;
+    }
+
+
+    /**
+     * Повертає основу системи числення, у якій зберігаються цифри.
+     *
+     * @return основа системи числення.
+     */
+    public int getBase() {
+        return base;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size + 1);
+        if (isNegative()) sb.append('-');
+        for (int i = 0; i < size; i++) {
+            sb.append(Character.toUpperCase(Character.forDigit(read(i), base)));
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Як і <tt>NumberListImpl.equals</tt>: рівні лише списки того самого
+     * класу з однаковими основою, знаком і цифрами.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OffHeapNumberList)) return false;
+        OffHeapNumberList other = (OffHeapNumberList) o;
+        if (size != other.size || base != other.base || isNegative() != other.isNegative()) return false;
+        for (int i = 0; i < size; i++) {
+            if (read(i) != other.read(i)) return false;
+        }
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + (isNegative() ? 1 : 0);
+    }
+
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    @Override
+    public Byte get(int index) {
+        checkIndex(index);
+        return (byte) read(index);
+    }
+
+
+    @Override
+    public Byte set(int index, Byte element) {
+        checkIndex(index);
+        int d = checkDigit(element);
+        int old = read(index);
+        write(index, d);
+        return (byte) old;
+    }
+
+
+    @Override
+    public void add(int index, Byte element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int d = checkDigit(element);
+        ensureCapacity((long) size + 1);
+        if (index < (size >> 1)) {
+            // ближче до початку: зсуваємо передню частину ліворуч
+            start = (start == 0) ? capacity - 1 : start - 1;
+            for (int i = 0; i < index; i++) write(i, read(i + 1));
+        } else {
+            for (int i = size; i > index; i--) write(i, read(i - 1));
+        }
+        write(index, d);
+        size++;
+        modCount++;
+    }
+
+
+    @Override
+    public Byte remove(int index) {
+        checkIndex(index);
+        int old = read(index);
+        if (index < (size >> 1)) {
+            for (int i = index; i > 0; i--) write(i, read(i - 1));
+            start = phys(1);
+        } else {
+            for (int i = index; i < size - 1; i++) write(i, read(i + 1));
+        }
+        size--;
+        modCount++;
+        return (byte) old;
+    }
+
+
+    @Override
+    public void clear() {
+        start = 0;
+        size = 0;
+        negative = false;
+        modCount++;
+    }
+
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) return false;
+        if (index1 == index2) return true;
+        int tmp = read(index1);
+        write(index1, read(index2));
+        write(index2, tmp);
+        return true;
+    }
+
+
+    @Override
+    public void sortAscending() {
+        if (size <= 1) return;
+        int[] counts = countDigits();
+        int pos = 0;
+        for (int d = 0; d < base; d++) {
+            for (int c = counts[d]; c > 0; c--) write(pos++, d);
+        }
+    }
+
+
+    @Override
+    public void sortDescending() {
+        if (size <= 1) return;
+        int[] counts = countDigits();
+        int pos = 0;
+        for (int d = base - 1; d >= 0; d--) {
+            for (int c = counts[d]; c > 0; c--) write(pos++, d);
+        }
+    }
+
+
+    @Override
+    public void shiftLeft() {
+        if (size <= 1) return;
+        modCount++;
+        if (size < capacity) {
+            write(size, read(0));
+        }
+        start = phys(1);
+    }
+
+
+    @Override
+    public void shiftRight() {
+        if (size <= 1) return;
+        modCount++;
+        int last = read(size - 1);
+        start = (start == 0) ? capacity - 1 : start - 1;
+        if (size < capacity) {
+            write(0, last);
+        }
+    }
+
+    // Допоміжні методи
+    private long phys(long index) {
+        long p = start + index;
+        return (p >= capacity) ? p - capacity : p;
+    }
+
+    private int read(long index) {
+        return digits.get(ValueLayout.JAVA_BYTE, phys(index));
+    }
+
+    private void write(long index, int digit) {
+        digits.set(ValueLayout.JAVA_BYTE, phys(index), (byte) digit);
+    }
+
+    private void allocate(long cap) {
+        arena = Arena.ofShared();
+        digits = arena.allocate(cap);
+        capacity = cap;
+        start = 0;
+    }
+
+    /**
+     * Переносить цифри у більший сегмент з нової арени, стару арену закриває
+     */
+    private void ensureCapacity(long min) {
+        if (min <= capacity) return;
+        Arena oldArena = arena;
+        MemorySegment old = digits;
+        long oldStart = start;
+        long oldCapacity = capacity;
+        allocate(Math.max(min, capacity * 2));
+        long first = Math.min(size, oldCapacity - oldStart);
+        MemorySegment.copy(old, oldStart, digits, 0, first);
+        MemorySegment.copy(old, 0, digits, first, size - first);
+        oldArena.close();
+    }
+
+    private int[] countDigits() {
+        int[] counts = new int[base];
+        for (int i = 0; i < size; i++) counts[read(i)]++;
+        return counts;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private int checkDigit(Byte e) {
+        if (e == null) throw new NullPointerException("element is null");
+        int val = e.byteValue() & 0xFF;
+        if (val >= base) {
+            throw new IllegalArgumentException("Digit out of range for base (" + base + "): " + val);
+        }
+        return val;
+    }
+
+    /**
+     * Копіює цифри з індексами [from, from + len) у buf
+     */
+    private void readSlice(long from, byte[] buf, int len) {
+        long p = phys(from);
+        int first = (int) Math.min(len, capacity - p);
+        MemorySegment.copy(digits, ValueLayout.JAVA_BYTE, p, buf, 0, first);
+        MemorySegment.copy(digits, ValueLayout.JAVA_BYTE, 0, buf, first, len - first);
+    }
+
+    private DigitArithmetic arithmetic() {
+        return base == NumberListImpl.PRIMARY_BASE ? DigitArithmetic.PRIMARY : new DigitArithmetic(base);
+    }
+
+    /**
+     * Модуль числа у лімбах системи to (молодші першими). Цифри читаються
+     * шматками по SLICE: у власній системі групуються в лімби напряму,
+     * в іншу переводяться через BaseConversion.Accumulator.
+     */
+    private int[] limbs(DigitArithmetic to) {
+        if (to.base != base) {
+            BaseConversion.Accumulator acc = new BaseConversion.Accumulator(base, to.base);
+            byte[] slice = new byte[Math.min(SLICE, size)];
+            for (long pos = 0; pos < size; pos += slice.length) {
+                int len = (int) Math.min(slice.length, size - pos);
+                readSlice(pos, slice, len);
+                acc.append(slice, 0, len);
+            }
+            return acc.finish();
+        }
+        int k = to.limbDigits;
+        int[] res = new int[(size + k - 1) / k];
+        // шматки йдуть від молодших цифр і, крім старшого, мають довжину,
+        // кратну limbDigits, тож лімб не розривається між шматками
+        byte[] slice = new byte[Math.min(SLICE / k * k, size)];
+        int i = 0;
+        for (long hi = size; hi > 0; ) {
+            int len = (int) Math.min(slice.length, hi);
+            hi -= len;
+            readSlice(hi, slice, len);
+            for (int pos = len; pos > 0; ) {
+                int from = Math.max(0, pos - k);
+                int v = 0;
+                for (int j = from; j < pos; j++) v = v * base + slice[j];
+                res[i++] = v;
+                pos = from;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Джерело символів десяткового запису, як у NumberListImpl.saveList
+     */
+    private NumberListImpl.DecimalChars decimalChars() {
+        return NumberListImpl.decimalChars(limbs(DigitArithmetic.DECIMAL), isNegative());
+    }
+
+    /**
+     * Записує у порожній список суму a і b зі знаками na і nb
+     */
+    private void loadSum(int[] a, boolean na, int[] b, boolean nb, DigitArithmetic arith) {
+        if (na == nb) {
+            load(arith.add(a, b), arith, na);
+        } else if (arith.compare(a, b) >= 0) {
+            load(arith.subtract(a, b), arith, na);
+        } else {
+            load(arith.subtract(b, a), arith, nb);
+        }
+    }
+
+    /**
+     * Записує модуль, заданий лімбами arith (у системі числення цього списку),
+     * у порожній список: лімби від старших розгортаються в цифри у буфер на
+     * SLICE цифр, який переноситься в сегмент, щойно заповниться
+     */
+    private void load(int[] limbs, DigitArithmetic arith, boolean negative) {
+        int n = arith.length(limbs);
+        int k = arith.limbDigits;
+        int top = 0;
+        for (int v = n == 0 ? 0 : limbs[n - 1]; v > 0; v /= base) top++;
+        long total = n == 0 ? 0 : (long) (n - 1) * k + top;
+        if (total > Integer.MAX_VALUE) throw new ArithmeticException("Number is too large");
+        if (total > capacity) {
+            arena.close();
+            allocate(total);
+        }
+        byte[] slice = new byte[(int) Math.min(SLICE, total)];
+        long pos = 0;
+        int fill = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int cnt = (i == n - 1) ? top : k;
+            if (fill + cnt > slice.length) {
+                MemorySegment.copy(slice, 0, digits, ValueLayout.JAVA_BYTE, pos, fill);
+                pos += fill;
+                fill = 0;
+            }
+            int v = limbs[i];
+            for (int j = fill + cnt - 1; j >= fill; j--) {
+                slice[j] = (byte) (v % base);
+                v /= base;
+            }
+            fill += cnt;
+        }
+        MemorySegment.copy(slice, 0, digits, ValueLayout.JAVA_BYTE, pos, fill);
+        start = 0;
+        size = (int) total;
+        this.negative = negative;
+        modCount++;
+    }
+
+    /**
+     * Записує цифри src (старші першими, без ведучих нулів) у порожній список
+     */
+    private void load(byte[] src, boolean negative) {
+        if (src.length > capacity) {
+            arena.close();
+            allocate(src.length);
+        }
+        MemorySegment.copy(src, 0, digits, ValueLayout.JAVA_BYTE, 0, src.length);
+        start = 0;
+        size = src.length;
+        this.negative = negative;
+        modCount++;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.AbstractList;
+import java.util.Collection;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Альтернативне сховище цифр для <tt>NumberList</tt>.<p>
+ *
+ * Цифри упаковані у масив <tt>long</tt>: на кожну цифру відводиться мінімальна
+ * кількість бітів для заданої основи (1 біт для двійкової системи, 2 - для
+ * трійкової, 3 - для вісімкової, 4 - для десяткової та шістнадцяткової).
+ * Масив використовується як кільцевий буфер, тому циклічні зсуви виконуються
+ * за O(1) - зміщенням початкової позиції <tt>start</tt>.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+public class PackedNumberList extends AbstractList<Byte> implements NumberList {
+
+    private final int base;
+    private final int bits;       // бітів на одну цифру
+    private final int perWord;    // цифр в одному long
+    private final long mask;
+
+    private long[] words;
+    private int capacity;         // words.length * perWord
+    private int start = 0;        // фізична позиція цифри з індексом 0
+    private int size = 0;
+
+    /**
+     * Створює порожній список у основній системі числення варіанту.
+     */
+    public PackedNumberList() {
+        this(NumberListImpl.PRIMARY_BASE);
+    }
+
+
+    /**
+     * Створює порожній список для цифр у заданій системі числення.
+     *
+     * @param base - основа системи числення (від 2 до 16).
+     */
+    public PackedNumberList(int base) {
+        if (base < 2 || base > 16) {
+            throw new IllegalArgumentException("Unsupported base: " + base);
+        }
+        this.base = base;
+        this.bits = 32 - Integer.numberOfLeadingZeros(base - 1);
+        this.perWord = Long.SIZE / bits;
+        this.mask = (1L << bits) - 1;
+        this.words = new long[1];
+        this.capacity = perWord;
+    }
+
+
+    /**
+     * Створює упаковану копію числа в основній системі числення.
+     *
+     * @param digits - цифри числа від старшої до молодшої.
+     */
+    public PackedNumberList(Collection<? extends Byte> digits) {
+        this(NumberListImpl.PRIMARY_BASE, digits);
+    }
+
+
+    /**
+     * Створює упаковану копію числа у заданій системі числення.
+     *
+     * @param base - основа системи числення.
+     * @param digits - цифри числа від старшої до молодшої.
+     */
+    public PackedNumberList(int base, Collection<? extends Byte> digits) {
+        this(base);
+        if (digits == null) throw new NullPointerException();
+        ensureCapacity(digits.size());
+        for (Byte b : digits) {
+            write(words, size++, checkDigit(b));
+        }
+    }
+
+
+    /**
+     * Повертає основу системи числення, у якій зберігаються цифри.
+     *
+     * @return основа системи числення.
+     */
+    public int getBase() {
+        return base;
+    }
+
+
+    /**
+     * Повертає копію числа у вигляді <tt>NumberListImpl</tt> у тій самій
+     * системі числення.
+     *
+     * @return <tt>NumberListImpl</tt> з тими самими цифрами.
+     */
+    public NumberListImpl toNumberList() {
+        byte[] digits = new byte[size];
+        for (int i = 0; i < size; i++) {
+            digits[i] = (byte) read(words, phys(i));
+        }
+        return NumberListImpl.fromDigits(digits, base, false);
+    }
+
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    @Override
+    public Byte get(int index) {
+        checkIndex(index);
+        return (byte) read(words, phys(index));
+    }
+
+
+    @Override
+    public Byte set(int index, Byte element) {
+        checkIndex(index);
+        int d = checkDigit(element);
+        int p = phys(index);
+        int old = read(words, p);
+        write(words, p, d);
+        return (byte) old;
+    }
+
+
+    @Override
+    public void add(int index, Byte element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int d = checkDigit(element);
+        ensureCapacity(size + 1);
+        if (index < (size >> 1)) {
+            // ближче до початку: зсуваємо передню частину ліворуч
+            start = (start == 0) ? capacity - 1 : start - 1;
+            for (int i = 0; i < index; i++) {
+                write(words, phys(i), read(words, phys(i + 1)));
+            }
+        } else {
+            // ближче до кінця: зсуваємо задню частину праворуч
+            for (int i = size; i > index; i--) {
+                write(words, phys(i), read(words, phys(i - 1)));
+            }
+        }
+        write(words, phys(index), d);
+        size++;
+        modCount++;
+    }
+
+
+    @Override
+    public Byte remove(int index) {
+        checkIndex(index);
+        int old = read(words, phys(index));
+        if (index < (size >> 1)) {
+            for (int i = index; i > 0; i--) {
+                write(words, phys(i), read(words, phys(i - 1)));
+            }
+            start = phys(1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                write(words, phys(i), read(words, phys(i + 1)));
+            }
+        }
+        size--;
+        if (size == 0) start = 0;
+        modCount++;
+        return (byte) old;
+    }
+
+
+    @Override
+    public void clear() {
+        words = new long[1];
+        capacity = perWord;
+        start = 0;
+        size = 0;
+        modCount++;
+    }
+
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) return false;
+        if (index1 == index2) return true;
+        int p1 = phys(index1);
+        int p2 = phys(index2);
+        int tmp = read(words, p1);
+        write(words, p1, read(words, p2));
+        write(words, p2, tmp);
+        return true;
+    }
+
+
+    @Override
+    public void sortAscending() {
+        if (size <= 1) return;
+        int[] counts = countDigits();
+        int pos = 0;
+        for (int d = 0; d < base; d++) {
+            for (int c = counts[d]; c > 0; c--) write(words, phys(pos++), d);
+        }
+    }
+
+
+    @Override
+    public void sortDescending() {
+        if (size <= 1) return;
+        int[] counts = countDigits();
+        int pos = 0;
+        for (int d = base - 1; d >= 0; d--) {
+            for (int c = counts[d]; c > 0; c--) write(words, phys(pos++), d);
+        }
+    }
+
+
+    @Override
+    public void shiftLeft() {
+        if (size <= 1) return;
+        modCount++;
+        if (size < capacity) {
+            // переносимо першу цифру у вільну позицію після останньої
+            write(words, phys(size), read(words, start));
+        }
+        start = phys(1);
+    }
+
+
+    @Override
+    public void shiftRight() {
+        if (size <= 1) return;
+        modCount++;
+        int last = read(words, phys(size - 1));
+        start = (start == 0) ? capacity - 1 : start - 1;
+        if (size < capacity) {
+            write(words, start, last);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        // Так само, як у NumberListImpl: цифри без роздільників
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            sb.append(Character.toUpperCase(Character.forDigit(read(words, phys(i)), base)));
+        }
+        return sb.toString();
+    }
+
+    // Допоміжні методи
+    private int phys(int index) {
+        int p = start + index;
+        return (p >= capacity) ? p - capacity : p;
+    }
+
+    private int read(long[] w, int p) {
+        return (int) ((w[p / perWord] >>> ((p % perWord) * bits)) & mask);
+    }
+
+    private void write(long[] w, int p, int digit) {
+        int wi = p / perWord;
+        int shift = (p % perWord) * bits;
+        w[wi] = (w[wi] & ~(mask << shift)) | ((long) digit << shift);
+    }
+
+    /**
+     * Збільшує буфер і заодно переносить цифри так, щоб start став 0
+     */
+    private void ensureCapacity(int min) {
+        if (min <= capacity) return;
+        int needWords = (min + perWord - 1) / perWord;
+        long[] grown = new long[Math.max(needWords, words.length * 2)];
+        for (int i = 0; i < size; i++) {
+            write(grown, i, read(words, phys(i)));
+        }
+        words = grown;
+        capacity = grown.length * perWord;
+        start = 0;
+    }
+
+    private int[] countDigits() {
+        int[] counts = new int[base];
+        for (int i = 0; i < size; i++) counts[read(words, phys(i))]++;
+        return counts;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private int checkDigit(Byte e) {
+        if (e == null) throw new NullPointerException("element is null");
+        int val = e.byteValue() & 0xFF;
+        if (val >= base) {
+            throw new IllegalArgumentException("Digit out of range for base (" + base + "): " + val);
+        }
+        return val;
+    }
+}
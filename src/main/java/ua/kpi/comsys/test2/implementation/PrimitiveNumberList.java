@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * <tt>NumberList</tt> з доступом до цифр без упаковки у <tt>Byte</tt>.<p>
+ *
+ * Сам інтерфейс <tt>NumberList</tt> змінювати не можна, тому примітивні
+ * методи винесені в окремий інтерфейс-розширення. Цифри передаються як
+ * <tt>int</tt> від 0 до основи системи числення мінус один.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+public interface PrimitiveNumberList extends NumberList {
+
+    /**
+     * Повертає цифру з індексом index.
+     *
+     * @param index - індекс цифри (0 - старший розряд).
+     * @return значення цифри.
+     */
+    int getDigit(int index);
+
+
+    /**
+     * Замінює цифру з індексом index.
+     *
+     * @param index - індекс цифри.
+     * @param digit - нове значення цифри.
+     * @return попереднє значення цифри.
+     */
+    int setDigit(int index, int digit);
+
+
+    /**
+     * Передає кожну цифру, від старшої до молодшої, у action.
+     *
+     * @param action - обробник цифр.
+     */
+    void forEachDigit(IntConsumer action);
+
+
+    /**
+     * Повертає послідовний потік цифр від старшої до молодшої.
+     *
+     * @return потік цифр.
+     */
+    IntStream digits();
+
+
+    /**
+     * Повертає копію цифр у вигляді масиву, від старшої до молодшої.
+     *
+     * @return новий масив цифр.
+     */
+    byte[] toByteArray();
+}
@@ -13,6 +13,7 @@ import org.junit.Test;
 import static org.junit.Assume.assumeTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class AdditionalOperationTest {
 
@@ -71,6 +72,21 @@ public class AdditionalOperationTest {
     }
 
 
+    @Test
+    public void testRemoveNegativeResult() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 1);
+
+        list1 = new NumberListImpl("2");
+        list2 = new NumberListImpl("15");
+
+        result = list1.additionalOperation(list2);
+
+        assertTrue("Result should be negative", result.isNegative());
+        assertEquals("Additional operation implemented in a wrong way", "-13", result.toDecimalString());
+        assertEquals("Wrong magnitude digits", new NumberListImpl("13").toString(), result.toString().substring(1));
+    }
+
+
     @Test
     public void testMultiply() {
         assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 2);
@@ -141,4 +157,36 @@ public class AdditionalOperationTest {
         assertNotNull("Result is null while it shouldn't!", result);
         assertEquals("Additional operation implemented in a wrong way",list3,result);
     }
+
+    @Test
+    public void testArithmeticApi() {
+        list1 = new NumberListImpl("79483758967495604375647803561675463655");
+        list2 = new NumberListImpl("464562565464565654634156134636");
+
+        assertEquals("79483759432058169840213458195831598291", list1.add(list2).toDecimalString());
+        assertEquals("-79483758502933038911082148927519329019", list2.subtract(list1).toDecimalString());
+        assertEquals("36925178978706934112494240701292687464605865418813851029337904654580",
+                list1.multiply(list2).toDecimalString());
+        assertEquals("171093766", list1.divide(list2).toDecimalString());
+        assertEquals("99541526970034678254799184479", list1.remainder(list2).toDecimalString());
+    }
+
+    @Test
+    public void testInPlaceArithmetic() {
+        list1 = new NumberListImpl("464562565464565654634156134636");
+        list2 = new NumberListImpl("79483758967495604375647803561675463655");
+
+        assertTrue("Should return this list", list1.subtractInPlace(list2) == list1);
+        assertEquals("-79483758502933038911082148927519329019", list1.toDecimalString());
+        assertEquals("Operand must not change", "79483758967495604375647803561675463655", list2.toDecimalString());
+
+        list1.addInPlace(list2);
+        assertEquals("464562565464565654634156134636", list1.toDecimalString());
+        assertEquals("Wrong digits after growing and shrinking", new NumberListImpl("464562565464565654634156134636"), list1);
+
+        list1.addInPlace(list1);
+        assertEquals("929125130929131309268312269272", list1.toDecimalString());
+        list1.subtractInPlace(list1);
+        assertTrue("x - x should be empty", list1.isEmpty());
+    }
 }
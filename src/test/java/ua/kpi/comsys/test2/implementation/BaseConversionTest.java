@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BaseConversionTest {
+    static final int[] BASES = {2, 3, 8, 10, 16};
+
+    static byte[] digits(BigInteger v, int base) {
+        String s = v.toString(base);
+        byte[] res = new byte[s.length()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = (byte) Character.digit(s.charAt(i), base);
+        }
+        return res;
+    }
+
+    static String toString(byte[] digits, int base) {
+        StringBuilder sb = new StringBuilder(digits.length);
+        for (byte d : digits) {
+            sb.append(Character.forDigit(d, base));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testAllBasePairs() {
+        Random r = new Random(3620);
+        for (int t = 0; t < 100; t++) {
+            // довжини і менші, і більші за LEAF_DIGITS, щоб зачепити рекурсію
+            BigInteger v = new BigInteger(1 + r.nextInt(5000), r);
+            for (int from : BASES) {
+                for (int to : BASES) {
+                    byte[] res = BaseConversion.convert(digits(v, from), from, to);
+                    assertEquals("Wrong conversion " + from + " -> " + to, v.toString(to), toString(res, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingZerosAndZero() {
+        assertEquals(0, BaseConversion.convert(new byte[] {0, 0, 0}, 2, 3).length);
+        assertEquals("12", toString(BaseConversion.convert(new byte[] {0, 0, 1, 0, 1}, 2, 3), 3));
+    }
+
+    @Test
+    public void testChangeScaleKeepsValue() {
+        NumberListImpl list = new NumberListImpl(ScaleOfNotationChangeTest.DECIMAL);
+        NumberListImpl changed = list.changeScale();
+
+        assertEquals(ScaleOfNotationChangeTest.DECIMAL, changed.toDecimalString());
+        assertEquals(ScaleOfNotationChangeTest.DECIMAL, changed.subtract(new NumberListImpl()).toDecimalString());
+    }
+
+    @Test
+    public void testToBase() {
+        Random r = new Random(36);
+        for (int t = 0; t < 50; t++) {
+            BigInteger v = new BigInteger(1 + r.nextInt(2000), r);
+            NumberListImpl list = new NumberListImpl(v.toString());
+            for (int b = 2; b <= 16; b++) {
+                NumberListImpl res = list.toBase(b);
+                assertEquals("Wrong result of toBase(" + b + ")", v.toString(b).toUpperCase(), res.toString());
+                assertEquals("Wrong result of toBase(" + b + ")", v.toString(), res.toDecimalString());
+                assertEquals("Wrong way back from base " + b, list, res.toBase(NumberListImpl.PRIMARY_BASE));
+            }
+        }
+    }
+
+    @Test
+    public void testDecimalRoundTrip() {
+        Random r = new Random(2014);
+        StringBuilder sb = new StringBuilder("000");
+        sb.append(1 + r.nextInt(9));
+        for (int i = 0; i < 20000; i++) {
+            sb.append(r.nextInt(10));
+        }
+        NumberListImpl list = new NumberListImpl(sb.toString());
+
+        assertEquals("Wrong digits after parsing", new BigInteger(sb.toString()).toString(NumberListImpl.PRIMARY_BASE).toUpperCase(),
+                list.toString());
+        assertEquals("Leading zeros should be dropped", sb.substring(3), list.toDecimalString());
+    }
+
+    @Test
+    public void testSharedPowerCache() throws Exception {
+        Random r = new Random(2015);
+        BigInteger v = new BigInteger(40000, r);
+        byte[] binary = digits(v, 2);
+        String expected = v.toString(10);
+        try {
+            BaseConversion.setCacheLimit(2000);
+            assertTrue("Cache limit exceeded", BaseConversion.cachedLimbs() <= 2000);
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> toString(BaseConversion.convert(binary, 2, 10), 10)));
+            }
+            for (Future<String> f : results) {
+                assertEquals("Wrong conversion with shared cache", expected, f.get());
+            }
+            pool.shutdown();
+            assertTrue("Cache limit exceeded", BaseConversion.cachedLimbs() <= 2000);
+        } finally {
+            BaseConversion.setCacheLimit(1L << 24);
+        }
+        assertEquals("Wrong conversion after cache resize", expected, toString(BaseConversion.convert(binary, 2, 10), 10));
+        assertTrue("Powers should be cached", BaseConversion.cachedLimbs() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToBaseOutOfRange() {
+        new NumberListImpl("10").toBase(17);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class DigitArithmeticTest {
+
+    static int[] randomLimbs(Random r, int n) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            // крайні значення лімбів частіше, щоб зачепити переноси
+            a[i] = r.nextInt(4) == 0 ? DigitArithmetic.PRIMARY.limbBase - 1 : r.nextInt(DigitArithmetic.PRIMARY.limbBase);
+        }
+        return a;
+    }
+
+    static BigInteger toBigInteger(int[] limbs) {
+        BigInteger res = BigInteger.ZERO;
+        BigInteger base = BigInteger.valueOf(DigitArithmetic.PRIMARY.limbBase);
+        for (int i = limbs.length - 1; i >= 0; i--) {
+            res = res.multiply(base).add(BigInteger.valueOf(limbs[i]));
+        }
+        return res;
+    }
+
+    @Test
+    public void testMultiplyAlgorithmsAgree() {
+        Random r = new Random(2015);
+        for (int t = 0; t < 200; t++) {
+            int[] a = randomLimbs(r, 1 + r.nextInt(250));
+            int[] b = randomLimbs(r, 1 + r.nextInt(250));
+            BigInteger expected = toBigInteger(a).multiply(toBigInteger(b));
+
+            // лише у стовпчик, лише Карацуба, Тоом-Кук з малими порогами
+            assertEquals(expected, toBigInteger(DigitArithmetic.PRIMARY.multiply(a, b, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+            assertEquals(expected, toBigInteger(DigitArithmetic.PRIMARY.multiply(a, b, 2, Integer.MAX_VALUE)));
+            assertEquals(expected, toBigInteger(DigitArithmetic.PRIMARY.multiply(a, b, 2, 3)));
+            assertEquals(expected, toBigInteger(DigitArithmetic.PRIMARY.multiply(a, b)));
+        }
+    }
+
+    @Test
+    public void testDivideAndRemainder() {
+        Random r = new Random(2014);
+        for (int t = 0; t < 200; t++) {
+            int[] a = randomLimbs(r, 1 + r.nextInt(60));
+            int[] b = randomLimbs(r, 1 + r.nextInt(20));
+            BigInteger[] expected = toBigInteger(a).divideAndRemainder(toBigInteger(b));
+
+            int[][] qr = DigitArithmetic.PRIMARY.divideAndRemainder(a, b);
+            assertEquals(expected[0], toBigInteger(qr[0]));
+            assertEquals(expected[1], toBigInteger(qr[1]));
+        }
+    }
+
+    @Test
+    public void testLimbsRoundTrip() {
+        byte[] digits = new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636").toByteArray();
+        assertArrayEquals(digits, DigitArithmetic.PRIMARY.toDigits(DigitArithmetic.PRIMARY.toLimbs(digits)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivisionByZero() {
+        DigitArithmetic.PRIMARY.divideAndRemainder(new int[] {1}, new int[] {0});
+    }
+
+    @Test
+    public void testWordBitwise() {
+        assumeTrue(DigitArithmetic.PRIMARY.digitBits > 0);
+
+        Random r = new Random(36);
+        for (int t = 0; t < 100; t++) {
+            BigInteger x = new BigInteger(r.nextInt(500), r);
+            BigInteger y = new BigInteger(r.nextInt(500), r);
+            NumberListImpl a = new NumberListImpl(x.toString());
+            NumberListImpl b = new NumberListImpl(y.toString());
+
+            assertEquals(x.and(y).toString(), a.and(b).toDecimalString());
+            assertEquals(x.or(y).toString(), a.or(b).toDecimalString());
+        }
+    }
+}
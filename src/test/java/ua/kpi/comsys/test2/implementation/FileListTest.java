@@ -8,9 +8,21 @@
 package ua.kpi.comsys.test2.implementation;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 
 import org.junit.After;
 import org.junit.Test;
@@ -150,4 +162,162 @@ public class FileListTest {
 
         assertEquals(str, list.toDecimalString());
     }
+
+    @Test
+    public void testStreamingConstructors() throws IOException {
+        f = new File(FILE_BIG);
+        BufferedReader br = new BufferedReader(new FileReader(f));
+        String str = br.readLine();
+        br.close();
+        NumberListImpl expected = new NumberListImpl(str);
+
+        try (FileReader in = new FileReader(f)) {
+            assertEquals("Incorrect loading from Reader", expected, new NumberListImpl(in));
+        }
+        try (InputStream in = new FileInputStream(f)) {
+            assertEquals("Incorrect loading from InputStream", expected, new NumberListImpl(in));
+        }
+        try (FileChannel in = FileChannel.open(f.toPath())) {
+            assertEquals("Incorrect loading from channel", expected, new NumberListImpl(in));
+        }
+
+        NumberListImpl list = new NumberListImpl(new StringReader("  " + str + " \n12345"));
+        assertEquals("Only the first line should be read", str, list.toDecimalString());
+        list = new NumberListImpl(new StringReader(str + " 1"));
+        assertTrue("Inner whitespace should give empty list", list.isEmpty());
+    }
+
+    @Test
+    public void testMappedRegion() throws IOException {
+        f = new File(FILE_BIG);
+        BufferedReader br = new BufferedReader(new FileReader(f));
+        String str = br.readLine();
+        br.close();
+
+        try (FileChannel ch = FileChannel.open(f.toPath())) {
+            MappedByteBuffer region = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            NumberListImpl list = new NumberListImpl(region);
+            assertEquals("Incorrect loading from mapped region", str, list.toDecimalString());
+            assertEquals("Buffer position should not change", 0, region.position());
+        }
+        NumberListImpl list = new NumberListImpl(ByteBuffer.wrap("-4".getBytes()));
+        assertTrue("Negative number should give empty list", list.isEmpty());
+    }
+
+    @Test
+    public void testMappedFileReleased() throws IOException {
+        // файл більший за поріг відображення: після завантаження його можна
+        // одразу перезаписати, відображення вже зняте
+        f = File.createTempFile("mapped", ".txt");
+        f.deleteOnExit();
+        StringBuilder sb = new StringBuilder("9");
+        for (int i = 1; i < 300000; i++) {
+            sb.append((char) ('0' + (i * 7) % 10));
+        }
+        try (FileWriter w = new FileWriter(f)) {
+            w.write(sb.toString());
+        }
+        NumberListImpl list = new NumberListImpl(f);
+        assertEquals("Incorrect loading from mapped file", new NumberListImpl(sb.toString()), list);
+
+        list.saveList(f);
+        assertEquals("Lists are not equal after save/restore operation", list, new NumberListImpl(f));
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        f = File.createTempFile("list", ".bin");
+        f.deleteOnExit();
+        NumberListImpl list = new NumberListImpl(new File(FILE_BIG));
+        list.saveBinary(f);
+        assertEquals("Lists are not equal after binary save/load", list, NumberListImpl.loadBinary(f));
+
+        NumberListImpl negative = new NumberListImpl("14").subtract(new NumberListImpl("227"));
+        negative.changeScale().saveBinary(f);
+        NumberListImpl loaded = NumberListImpl.loadBinary(f);
+        assertEquals("Sign or base lost", "-213", loaded.toDecimalString());
+        assertEquals(negative.changeScale(), loaded);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testBinaryChecksum() throws IOException {
+        f = File.createTempFile("list", ".bin");
+        f.deleteOnExit();
+        new NumberListImpl(new File(FILE_BIG)).saveBinary(f);
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.seek(raf.length() - 1);
+            int b = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(b ^ 0x80);
+        }
+        NumberListImpl.loadBinary(f);
+    }
+
+    @Test
+    public void testWriteDecimal() throws IOException {
+        f = new File(FILE_BIG);
+        BufferedReader br = new BufferedReader(new FileReader(f));
+        String str = br.readLine();
+        br.close();
+
+        NumberListImpl list = new NumberListImpl(f);
+        StringWriter sw = new StringWriter();
+        list.writeDecimal(sw);
+        assertEquals("Incorrect write to Writer", str, sw.toString());
+
+        sw = new StringWriter();
+        list.toBase(10).writeDecimal(sw);
+        assertEquals("Incorrect write from base 10", str, sw.toString());
+
+        // перша цифра не на початку блоку
+        list.shiftLeft();
+        sw = new StringWriter();
+        list.writeDecimal(sw);
+        assertEquals("Incorrect write after shiftLeft()", list.toDecimalString(), sw.toString());
+
+        NumberListImpl negative = new NumberListImpl("14").subtract(new NumberListImpl("227"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        negative.writeDecimal(Channels.newChannel(bytes));
+        assertEquals("Incorrect write to channel", "-213", bytes.toString("US-ASCII"));
+
+        sw = new StringWriter();
+        new NumberListImpl().writeDecimal(sw);
+        assertEquals("0", sw.toString());
+    }
+
+    @Test
+    public void testAsyncLoadSave() throws Exception {
+        f = File.createTempFile("async", ".txt");
+        f.deleteOnExit();
+        NumberListImpl list = NumberListImpl.loadAsync(new File(FILE_BIG).toPath()).get();
+        assertEquals("Incorrect async loading", new NumberListImpl(new File(FILE_BIG)), list);
+
+        list.saveAsync(f.toPath()).get();
+        BufferedReader br = new BufferedReader(new FileReader(f));
+        assertEquals("Incorrect async write", list.toDecimalString(), br.readLine());
+        assertNull(br.readLine());
+        br.close();
+
+        assertTrue("Invalid content should give empty list",
+                NumberListImpl.loadAsync(new File(FILE_EMPTY).toPath()).get().isEmpty());
+    }
+
+    @Test
+    public void testAsyncNonAscii() throws Exception {
+        f = File.createTempFile("async", ".txt");
+        f.deleteOnExit();
+        // арабсько-індійські цифри 1, 2, 3: Reader розбирає їх як 123
+        try (FileWriter w = new FileWriter(f)) {
+            w.write("\u0661\u0662\u0663\n");
+        }
+        NumberListImpl list = NumberListImpl.loadAsync(f.toPath()).get();
+        assertEquals("Async loading differs from File constructor", new NumberListImpl(f), list);
+        assertEquals("Incorrect async loading", "123", list.toDecimalString());
+
+        // літера поза ASCII: порожній список в обох випадках
+        try (FileWriter w = new FileWriter(f)) {
+            w.write(" 4\u00e9\n");
+        }
+        assertTrue("Invalid content should give empty list", NumberListImpl.loadAsync(f.toPath()).get().isEmpty());
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ListOperationsTest {
+    static String DECIMAL = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testSort() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new NumberListImpl(DECIMAL);
+        int[] counts = list.digitHistogram();
+        assertEquals("Wrong histogram", list.size(), counts[0] + counts[1]);
+
+        list.shiftLeft();
+        list.sortAscending();
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals("Wrong result of sortAscending()", Byte.valueOf((byte) (i < counts[0] ? 0 : 1)), list.get(i));
+        }
+
+        list.sortDescending();
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals("Wrong result of sortDescending()", Byte.valueOf((byte) (i < counts[1] ? 1 : 0)), list.get(i));
+        }
+    }
+
+    @Test
+    public void testListIteratorRemovesReturnedElement() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new NumberListImpl("5"); // 101
+        ListIterator<Byte> it = list.listIterator(list.size());
+        assertEquals(Byte.valueOf((byte) 1), it.previous());
+        it.remove();
+        assertEquals("Wrong element removed", "10", list.toString());
+
+        it.add((byte) 1);
+        it.add((byte) 1);
+        assertEquals("Wrong result of add()", "1011", list.toString());
+        assertEquals(Byte.valueOf((byte) 1), it.previous());
+        it.set((byte) 0);
+        assertEquals("Wrong result of set()", "1010", list.toString());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        list = new NumberListImpl(DECIMAL);
+        Iterator<Byte> it = list.iterator();
+        it.next();
+        list.shiftLeft();
+        it.next();
+    }
+
+    @Test
+    public void testBulkRemove() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new NumberListImpl(DECIMAL);
+        int[] counts = list.digitHistogram();
+        list.shiftRight();
+
+        NumberListImpl ones = new NumberListImpl(DECIMAL);
+        assertTrue(ones.removeAll(Arrays.asList((byte) 0)));
+        assertEquals("Wrong result of removeAll()", counts[1], ones.size());
+        assertEquals(-1, ones.indexOf((byte) 0));
+
+        assertFalse(list.retainAll(Arrays.asList((byte) 0, (byte) 1)));
+        assertTrue(list.retainAll(Arrays.asList((byte) 0)));
+        assertEquals("Wrong result of retainAll()", counts[0], list.size());
+
+        assertTrue(list.removeIf(b -> b == 0));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testSubListIsView() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new NumberListImpl("5"); // 101
+        List<Byte> view = list.subList(1, 3);
+        assertEquals(2, view.size());
+
+        view.set(0, (byte) 1);
+        assertEquals("Write through view is lost", "111", list.toString());
+        list.set(2, (byte) 0);
+        assertEquals("View does not reflect list", Byte.valueOf((byte) 0), view.get(1));
+
+        view.add((byte) 1);
+        view.remove(0);
+        assertEquals("Wrong structural change through view", "101", list.toString());
+        assertEquals(2, view.size());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testSubListFailFast() {
+        list = new NumberListImpl(DECIMAL);
+        List<Byte> view = list.subList(1, 5);
+        list.remove(0);
+        view.get(0);
+    }
+
+    @Test
+    public void testSpliceAddAll() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new NumberListImpl("5"); // 101
+        assertTrue(list.addAll(1, Arrays.asList((byte) 1, (byte) 1)));
+        assertEquals("Wrong result of addAll()", "11101", list.toString());
+        assertFalse(list.addAll(Arrays.<Byte>asList()));
+
+        NumberListImpl source = new NumberListImpl("2"); // 10
+        list.transferAll(list.size(), source);
+        assertEquals("Wrong result of transferAll()", "1110110", list.toString());
+        assertTrue("Source should be consumed", source.isEmpty());
+    }
+
+    @Test
+    public void testPrimitiveDigitAccess() {
+        list = new NumberListImpl(DECIMAL);
+        byte[] digits = list.toByteArray();
+        assertEquals(list.size(), digits.length);
+
+        NumberListImpl copy = new NumberListImpl(digits);
+        assertEquals("Wrong result of byte[] constructor", list, copy);
+        assertEquals(DECIMAL, copy.toDecimalString());
+
+        int[] sum = new int[1];
+        list.forEachDigit(d -> sum[0] += d);
+        assertEquals("Wrong result of forEachDigit()", sum[0], list.digits().sum());
+        assertEquals(list.get(3).intValue(), list.getDigit(3));
+
+        int old = list.setDigit(0, 0);
+        assertEquals(digits[0], old);
+        assertEquals(Byte.valueOf((byte) 0), list.get(0));
+    }
+
+    @Test
+    public void testCachedValueInvalidation() {
+        list = new NumberListImpl(DECIMAL);
+        assertEquals(DECIMAL, list.toDecimalString());
+        NumberListImpl scaled = list.changeScale();
+        scaled.add((byte) 0);
+        assertEquals("Cached conversion leaked to caller", scaled.size() - 1, list.changeScale().size());
+
+        int last = list.getDigit(list.size() - 1);
+        list.setDigit(list.size() - 1, (last + 1) % NumberListImpl.PRIMARY_BASE);
+        String afterSet = list.toDecimalString();
+        assertFalse("Stale value after setDigit()", DECIMAL.equals(afterSet));
+        assertEquals(afterSet, new NumberListImpl(list.toByteArray()).toDecimalString());
+        assertEquals(afterSet, list.changeScale().toDecimalString());
+
+        ListIterator<Byte> it = list.listIterator(list.size());
+        it.previous();
+        it.set((byte) last);
+        assertEquals("Stale value after iterator set()", DECIMAL, list.toDecimalString());
+
+        String before = list.toDecimalString();
+        list.shiftLeft();
+        assertFalse("Stale value after shiftLeft()", before.equals(list.toDecimalString()));
+        list.shiftRight();
+        assertEquals(before, list.toDecimalString());
+
+        list.sortDescending();
+        assertEquals("Stale value after sortDescending()", new NumberListImpl(list.toByteArray()).toDecimalString(),
+                list.toDecimalString());
+        list.swap(0, list.size() - 1);
+        assertEquals("Stale value after swap()", new NumberListImpl(list.toByteArray()).toDecimalString(),
+                list.toDecimalString());
+        list.clear();
+        assertEquals("0", list.toDecimalString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetDigitOutOfRange() {
+        list = new NumberListImpl(DECIMAL);
+        list.setDigit(0, NumberListImpl.PRIMARY_BASE);
+    }
+
+    @Test
+    public void testBlockBoundaries() {
+        // BLOCK_SIZE = 64: вставки і видалення саме на межах блоків
+        // розщеплюють повні блоки і зливають напівпорожні
+        int base = NumberListImpl.PRIMARY_BASE;
+        byte[] ref = new byte[400];
+        int n = 3 * 64 + 5;
+        list = new NumberListImpl();
+        for (int i = 0; i < n; i++) {
+            ref[i] = (byte) ((i * 7 + i / 64) % base);
+            list.add(ref[i]);
+        }
+        assertDigits("Wrong digits after add()", ref, n, list);
+
+        int[] positions = {64, 63, 65, 128, 0, 1000};
+        for (int k = 0; k < positions.length; k++) {
+            int i = Math.min(positions[k], n);
+            byte d = (byte) (k % base);
+            list.add(i, d);
+            System.arraycopy(ref, i, ref, i + 1, n - i);
+            ref[i] = d;
+            n++;
+            assertDigits("Wrong digits after add(" + i + ")", ref, n, list);
+        }
+
+        // другий блок пустіє, поки не зіллється з сусіднім
+        for (int k = 0; k < 40; k++) {
+            int i = 64 + 10;
+            assertEquals("Wrong remove(" + i + ")", Byte.valueOf(ref[i]), list.remove(i));
+            System.arraycopy(ref, i + 1, ref, i, n - i - 1);
+            n--;
+        }
+        assertDigits("Wrong digits after remove()", ref, n, list);
+
+        // голова переходить через межу блоку в обидва боки
+        for (int k = 0; k < 70; k++) {
+            list.shiftLeft();
+            byte first = ref[0];
+            System.arraycopy(ref, 1, ref, 0, n - 1);
+            ref[n - 1] = first;
+        }
+        assertDigits("Wrong digits after shiftLeft()", ref, n, list);
+        for (int k = 0; k < 135; k++) {
+            list.shiftRight();
+            byte last = ref[n - 1];
+            System.arraycopy(ref, 0, ref, 1, n - 1);
+            ref[0] = last;
+        }
+        assertDigits("Wrong digits after shiftRight()", ref, n, list);
+    }
+
+    @Test
+    public void testRandomAccessFarFromEnds() {
+        // кілька тисяч цифр: позиції далі SKIP_INDEX_DISTANCE від голови,
+        // хвоста і пальця шукаються через індекс блоків
+        Random r = new Random(3620);
+        int base = NumberListImpl.PRIMARY_BASE;
+        byte[] ref = new byte[8000];
+        int n = 5000;
+        list = new NumberListImpl();
+        for (int i = 0; i < n; i++) {
+            ref[i] = (byte) r.nextInt(base);
+            list.add(ref[i]);
+        }
+
+        for (int step = 0; step < 4000; step++) {
+            int i = r.nextInt(n);
+            switch (r.nextInt(6)) {
+                case 0:
+                    assertEquals("Wrong get(" + i + ")", Byte.valueOf(ref[i]), list.get(i));
+                    break;
+                case 1:
+                    byte d = (byte) r.nextInt(base);
+                    assertEquals("Wrong set(" + i + ")", Byte.valueOf(ref[i]), list.set(i, d));
+                    ref[i] = d;
+                    break;
+                case 2:
+                    byte a = (byte) r.nextInt(base);
+                    list.add(i, a);
+                    System.arraycopy(ref, i, ref, i + 1, n - i);
+                    ref[i] = a;
+                    n++;
+                    break;
+                case 3:
+                    assertEquals("Wrong remove(" + i + ")", Byte.valueOf(ref[i]), list.remove(i));
+                    System.arraycopy(ref, i + 1, ref, i, n - i - 1);
+                    n--;
+                    break;
+                case 4:
+                    list.shiftLeft();
+                    byte first = ref[0];
+                    System.arraycopy(ref, 1, ref, 0, n - 1);
+                    ref[n - 1] = first;
+                    break;
+                default:
+                    list.shiftRight();
+                    byte last = ref[n - 1];
+                    System.arraycopy(ref, 0, ref, 1, n - 1);
+                    ref[0] = last;
+                    break;
+            }
+        }
+        assertDigits("Wrong digits", ref, n, list);
+    }
+
+    private static void assertDigits(String message, byte[] expected, int n, NumberListImpl list) {
+        assertEquals(message, n, list.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(message, Byte.valueOf(expected[i]), list.get(i));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Random;
+
+/**
+ * Заміри, за якими обрані пороги DigitArithmetic.KARATSUBA_THRESHOLD і
+ * TOOM3_THRESHOLD. Не тест: запускається окремо (<tt>make bench</tt>).<p>
+ *
+ * Квадрат числа з n лімбів множиться з різними порогами, і для кожного n
+ * друкується час одного добутку. Спершу змінюється поріг Карацуби (без
+ * Тоом-Кука), потім поріг Тоом-Кука-3 (з порогом Карацуби за
+ * замовчуванням). Обирається поріг, найкращий або близький до найкращого
+ * для всіх розмірів. Наприкінці - добуток 20000 x 20000 лімбів у стовпчик
+ * і з порогами за замовчуванням.<p>
+ *
+ * Виконав: Шостак Богдан, ІО-36, № залікової книжки 3620
+ */
+public class MultiplyBenchmark {
+
+    private static final int[] KARATSUBA_SIZES = {64, 256, 1024};
+    private static final int[] KARATSUBA_CANDIDATES = {8, 16, 24, 32, 48, 64};
+    private static final int[] TOOM3_SIZES = {1000, 4000};
+    private static final int[] TOOM3_CANDIDATES = {64, 96, 128, 160, 192, 240, 320, 480};
+    private static final int NO_SPLIT = Integer.MAX_VALUE;
+
+    // результат, щоб JIT не викинув множення
+    private static long sink;
+
+    public static void main(String[] args) {
+        DigitArithmetic arith = DigitArithmetic.PRIMARY;
+        Random r = new Random(3620);
+        int[][] small = operands(r, KARATSUBA_SIZES);
+        int[][] large = operands(r, TOOM3_SIZES);
+
+        // перший прохід - лише прогрів: поки JIT не скомпілював усі гілки
+        // рекурсії, заміри на перших розмірах завищені в кілька разів
+        for (int pass = 0; pass < 2; pass++) {
+            boolean print = pass == 1;
+            if (print) System.out.println("Karatsuba threshold (no Toom-3), us per product");
+            if (print) printHeader(KARATSUBA_SIZES);
+            for (int kt : KARATSUBA_CANDIDATES) {
+                if (print) System.out.printf("%10d", kt);
+                for (int[] a : small) {
+                    long t = time(arith, a, kt, NO_SPLIT);
+                    if (print) System.out.printf(" %10d", t / 1000);
+                }
+                if (print) System.out.println();
+            }
+
+            if (print) System.out.println();
+            if (print) System.out.println("Toom-3 threshold (Karatsuba threshold "
+                    + DigitArithmetic.KARATSUBA_THRESHOLD + "), us per product");
+            if (print) printHeader(TOOM3_SIZES);
+            for (int tt : TOOM3_CANDIDATES) {
+                if (print) System.out.printf("%10d", tt);
+                for (int[] a : large) {
+                    long t = time(arith, a, DigitArithmetic.KARATSUBA_THRESHOLD, tt);
+                    if (print) System.out.printf(" %10d", t / 1000);
+                }
+                if (print) System.out.println();
+            }
+        }
+
+        System.out.println();
+        int[] big = DigitArithmeticTest.randomLimbs(r, 20000);
+        long start = System.nanoTime();
+        sink += arith.multiply(big, big, NO_SPLIT, NO_SPLIT).length;
+        long school = System.nanoTime() - start;
+        start = System.nanoTime();
+        sink += arith.multiply(big, big).length;
+        long fast = System.nanoTime() - start;
+        System.out.printf("20000 x 20000 limbs: schoolbook %d ms, default thresholds %d ms%n",
+                school / 1_000_000, fast / 1_000_000);
+        if (sink == 42) System.out.println();
+    }
+
+    private static void printHeader(int[] sizes) {
+        System.out.printf("%10s", "threshold");
+        for (int n : sizes) System.out.printf(" %10s", n + " limbs");
+        System.out.println();
+    }
+
+    private static int[][] operands(Random r, int[] sizes) {
+        int[][] res = new int[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) res[i] = DigitArithmeticTest.randomLimbs(r, sizes[i]);
+        return res;
+    }
+
+    /**
+     * Найменший час (нс) одного множення a * a з заданими порогами після
+     * прогріву; повторів стільки, щоб кожен замір тривав не менше 20 мс
+     */
+    private static long time(DigitArithmetic arith, int[] a, int kt, int tt) {
+        long deadline = System.nanoTime() + 200_000_000L;
+        int reps = 1;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) sink += arith.multiply(a, a, kt, tt)[0];
+            if (System.nanoTime() - start < 20_000_000L) reps *= 2;
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) sink += arith.multiply(a, a, kt, tt)[0];
+            best = Math.min(best, (System.nanoTime() - start) / reps);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapNumberListTest {
+    static String DECIMAL = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    OffHeapNumberList list1;
+    OffHeapNumberList list2;
+
+    @After
+    public void tearDown() {
+        if (list1 != null) {
+            list1.close();
+            list1 = null;
+        }
+        if (list2 != null) {
+            list2.close();
+            list2 = null;
+        }
+    }
+
+    @Test
+    public void testSameDigitsAsLinkedList() {
+        list1 = new OffHeapNumberList(DECIMAL);
+        NumberListImpl expected = new NumberListImpl(DECIMAL);
+
+        assertEquals("Wrong digits", expected.toString(), list1.toString());
+        assertEquals("Wrong value", DECIMAL, list1.toDecimalString());
+    }
+
+    @Test
+    public void testInvalidStringInput() {
+        list1 = new OffHeapNumberList("-4");
+        assertTrue("List should be empty!", list1.isEmpty());
+    }
+
+    @Test
+    public void testChangeScale() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list1 = new OffHeapNumberList(ScaleOfNotationChangeTest.DECIMAL);
+        list2 = list1.changeScale();
+
+        assertEquals("Invalid result of changeScale() ", ScaleOfNotationChangeTest.TERNARY, list2.toString());
+        assertEquals("Invalid result of toString() ", ScaleOfNotationChangeTest.BINARY, list1.toString());
+    }
+
+    @Test
+    public void testAdditionalOperation() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 1);
+
+        list1 = new OffHeapNumberList("15");
+        list2 = list1.additionalOperation(new NumberListImpl("2"));
+
+        assertEquals("Additional operation implemented in a wrong way", "13", list2.toDecimalString());
+
+        OffHeapNumberList a = new OffHeapNumberList("14");
+        OffHeapNumberList b = new OffHeapNumberList("227");
+        try (OffHeapNumberList res = a.additionalOperation(b)) {
+            NumberListImpl expected = new NumberListImpl("14").additionalOperation(new NumberListImpl("227"));
+            assertEquals("Sign of the result is lost", "-213", res.toDecimalString());
+            assertTrue("Sign of the result is lost", res.isNegative());
+            assertEquals("Wrong digits", expected.toString(), res.toString());
+        } finally {
+            a.close();
+            b.close();
+        }
+    }
+
+    @Test
+    public void testEquals() {
+        list1 = new OffHeapNumberList(DECIMAL);
+        list2 = new OffHeapNumberList(DECIMAL);
+        NumberListImpl impl = new NumberListImpl(DECIMAL);
+
+        assertEquals("Equal lists are not equal", list1, list2);
+        assertEquals("Equal lists have different hash codes", list1.hashCode(), list2.hashCode());
+        assertFalse("equals() must not depend on the direction", list1.equals(impl));
+        assertFalse("equals() must not depend on the direction", impl.equals(list1));
+
+        try (OffHeapNumberList ternary = list1.changeScale()) {
+            assertFalse("Lists in different bases are equal", list1.equals(ternary));
+            assertFalse("Lists in different bases are equal", ternary.equals(list1));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testMillionDigits() {
+        // перевід через BigInteger тут квадратичний і не вкладається в timeout
+        Random r = new Random(3620);
+        char[] chars = new char[1_000_000];
+        chars[0] = (char) ('1' + r.nextInt(9));
+        for (int i = 1; i < chars.length; i++) {
+            chars[i] = (char) ('0' + r.nextInt(10));
+        }
+        String decimal = new String(chars);
+        NumberListImpl expected = new NumberListImpl(decimal);
+
+        list1 = new OffHeapNumberList(decimal);
+        assertEquals("Wrong digits", expected.toString(), list1.toString());
+        assertEquals("Wrong value", decimal, list1.toDecimalString());
+
+        list2 = list1.changeScale();
+        NumberListImpl ternary = expected.changeScale();
+        assertEquals("Invalid result of changeScale() ", ternary.toString(), list2.toString());
+
+        try (OffHeapNumberList res = list1.additionalOperation(list2)) {
+            assertEquals("Additional operation implemented in a wrong way",
+                    expected.additionalOperation(ternary).toDecimalString(), res.toDecimalString());
+        }
+
+        // цифри з кінця сегмента переходять на його початок
+        list1.shiftRight();
+        expected.shiftRight();
+        try (OffHeapNumberList res = list2.additionalOperation(list1)) {
+            assertEquals("Additional operation implemented in a wrong way",
+                    ternary.additionalOperation(expected).toDecimalString(), res.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testShiftsAndGrowth() {
+        list1 = new OffHeapNumberList();
+        NumberListImpl expected = new NumberListImpl();
+        for (int i = 0; i < 1000; i++) {
+            byte d = (byte) ((i * 7) % NumberListImpl.PRIMARY_BASE);
+            list1.add(d);
+            expected.add(d);
+            if (i % 3 == 0) {
+                list1.shiftRight();
+                expected.shiftRight();
+            }
+        }
+        list1.add(500, (byte) 0);
+        expected.add(500, (byte) 0);
+        list1.shiftLeft();
+        expected.shiftLeft();
+
+        assertEquals("Wrong digits", expected.toString(), list1.toString());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsAfterShift() {
+        list1 = new OffHeapNumberList(DECIMAL);
+        Iterator<Byte> it = list1.iterator();
+        it.next();
+        list1.shiftLeft();
+        it.next();
+    }
+
+    @Test
+    public void testSaveList() throws IOException {
+        File f = File.createTempFile("offheap", ".txt");
+        f.deleteOnExit();
+        list1 = new OffHeapNumberList(DECIMAL);
+        list1.saveList(f);
+
+        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
+            assertEquals("Incorrect write to file", DECIMAL, br.readLine());
+        }
+        list2 = new OffHeapNumberList(f);
+        assertEquals("Lists are not equal after save/restore operation", list1, list2);
+    }
+}
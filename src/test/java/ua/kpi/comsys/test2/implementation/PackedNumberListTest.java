@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackedNumberListTest {
+    static String DECIMAL = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    PackedNumberList list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testSameDigitsAsLinkedList() {
+        NumberListImpl source = new NumberListImpl(DECIMAL);
+        list = new PackedNumberList(source);
+
+        assertEquals("Wrong size", source.size(), list.size());
+        assertEquals("Wrong digits", source.toString(), list.toString());
+        assertEquals("Wrong conversion back", DECIMAL, list.toNumberList().toDecimalString());
+    }
+
+    @Test
+    public void testOtherBaseRoundTrip() {
+        for (int base : new int[] {3, 8, 10, 16}) {
+            NumberListImpl source = new NumberListImpl(DECIMAL).toBase(base);
+            list = new PackedNumberList(base, source);
+            NumberListImpl back = list.toNumberList();
+
+            assertEquals("Wrong digits after conversion back", source, back);
+            assertEquals("Wrong value after conversion back", DECIMAL, back.toDecimalString());
+        }
+
+        list = new PackedNumberList(3);
+        list.add((byte) 2);
+        assertEquals("Wrong digits after conversion back", "2", list.toNumberList().toString());
+    }
+
+    @Test
+    public void testOperandInOtherBase() {
+        NumberListImpl a = new NumberListImpl("1000");
+        list = new PackedNumberList(8, new NumberListImpl("36").toBase(8));
+
+        assertEquals("Packed operand read in a wrong base",
+                a.additionalOperation(new NumberListImpl("36")), a.additionalOperation(list));
+    }
+
+    @Test
+    public void testShiftsAcrossWordBoundary() {
+        NumberListImpl source = new NumberListImpl(DECIMAL);
+        list = new PackedNumberList(source);
+
+        for (int i = 0; i < 100; i++) {
+            source.shiftLeft();
+            list.shiftLeft();
+        }
+        assertEquals("Wrong result of shiftLeft()", source.toString(), list.toString());
+
+        for (int i = 0; i < 170; i++) {
+            source.shiftRight();
+            list.shiftRight();
+        }
+        assertEquals("Wrong result of shiftRight()", source.toString(), list.toString());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsAfterShift() {
+        list = new PackedNumberList(new NumberListImpl(DECIMAL));
+        Iterator<Byte> it = list.iterator();
+        it.next();
+        list.shiftRight();
+        it.next();
+    }
+
+    @Test
+    public void testInsertAndRemove() {
+        list = new PackedNumberList(3);
+        for (int i = 0; i < 200; i++) {
+            list.add((byte) (i % 3));
+        }
+        list.shiftRight();
+        list.add(0, (byte) 2);
+        list.add(100, (byte) 1);
+        assertEquals("Wrong size", 202, list.size());
+        assertEquals(Byte.valueOf((byte) 2), list.get(0));
+        assertEquals(Byte.valueOf((byte) (199 % 3)), list.get(1));
+        assertEquals(Byte.valueOf((byte) 1), list.get(100));
+
+        assertEquals(Byte.valueOf((byte) 1), list.remove(100));
+        assertEquals(Byte.valueOf((byte) 2), list.remove(0));
+        list.shiftLeft();
+        for (int i = 0; i < 200; i++) {
+            assertEquals(Byte.valueOf((byte) (i % 3)), list.get(i));
+        }
+    }
+
+    @Test
+    public void testSwapAndSort() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 0);
+
+        list = new PackedNumberList(new NumberListImpl("1212144468782345613"));
+        int ones = 0;
+        for (Byte b : list) ones += b;
+
+        assertTrue(list.swap(0, list.size() - 1));
+        list.sortDescending();
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(Byte.valueOf((byte) (i < ones ? 1 : 0)), list.get(i));
+        }
+        list.sortAscending();
+        assertEquals(Byte.valueOf((byte) 0), list.get(0));
+        assertEquals(Byte.valueOf((byte) 1), list.get(list.size() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDigitOutOfRange() {
+        list = new PackedNumberList(8);
+        list.add((byte) 8);
+    }
+}